@@ -0,0 +1,62 @@
+package com.kacper.passwordapi.benchmark;
+
+import com.kacper.passwordapi.PasswordApiApplication;
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.service.PasswordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CreatePasswordBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int numberOfPasswords;
+
+    private ConfigurableApplicationContext context;
+    private PasswordService passwordService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PasswordApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "password-api.digest.key=benchmark")
+                .run();
+        passwordService = context.getBean(PasswordService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<GeneratedPasswordDto> createPassword() {
+        return passwordService.createPassword(16, true, true, true, numberOfPasswords);
+    }
+}
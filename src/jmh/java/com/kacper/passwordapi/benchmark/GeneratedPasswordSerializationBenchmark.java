@@ -0,0 +1,62 @@
+package com.kacper.passwordapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.service.PasswordComplexityClassifier;
+import com.kacper.passwordapi.service.PasswordGenerationEngine;
+import com.kacper.passwordapi.service.PasswordGenerationPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratedPasswordSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int numberOfPasswords;
+
+    private ObjectWriter writer;
+    private List<GeneratedPasswordDto> generatedPasswordDtos;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, GeneratedPasswordDto.class));
+        PasswordGenerationEngine passwordGenerationEngine = new PasswordGenerationEngine();
+        PasswordGenerationPlan plan = passwordGenerationEngine.plan(16, true, true, true);
+        generatedPasswordDtos = new ArrayList<>(numberOfPasswords);
+        for(int i = 0; i < numberOfPasswords; i++){
+            String password = passwordGenerationEngine.generate(plan);
+            GeneratedPasswordDto generatedPasswordDto = new GeneratedPasswordDto(password, PasswordComplexityClassifier.classify(password).toString());
+            if(i % 10 == 0){
+                generatedPasswordDto.setPasswordAlreadyExists(true);
+            }
+            generatedPasswordDtos.add(generatedPasswordDto);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeGeneratedPasswords() throws JsonProcessingException {
+        return writer.writeValueAsBytes(generatedPasswordDtos);
+    }
+}
@@ -0,0 +1,75 @@
+package com.kacper.passwordapi.benchmark;
+
+import com.kacper.passwordapi.config.StrengthProperties;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import com.kacper.passwordapi.service.PasswordComplexityClassifier;
+import com.kacper.passwordapi.service.PasswordGenerationEngine;
+import com.kacper.passwordapi.service.PasswordStrength;
+import com.kacper.passwordapi.service.PasswordStrengthEstimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordComplexityBenchmark {
+
+    private static final int PASSWORDS = 1024;
+
+    private final String[] passwords = new String[PASSWORDS];
+    private int next;
+    private PasswordStrengthEstimator passwordStrengthEstimator;
+
+    @Setup
+    public void setUp() {
+        passwordStrengthEstimator = new PasswordStrengthEstimator(new StrengthProperties());
+        PasswordGenerationEngine passwordGenerationEngine = new PasswordGenerationEngine();
+        for(int i = 0; i < PASSWORDS; i++){
+            passwords[i] = passwordGenerationEngine.generate(passwordGenerationEngine.plan(3 + i % 30, i % 2 == 0, true, i % 3 != 0));
+        }
+    }
+
+    @Benchmark
+    public PasswordComplexity definePasswordComplexity() {
+        return PasswordComplexityClassifier.classify(nextPassword());
+    }
+
+    @Benchmark
+    public PasswordComplexity definePasswordComplexityWithRegex() {
+        String password = nextPassword();
+        boolean specialCharactersPresence = password.matches(".*[!@#$%^&*()\\-_=+\\[\\]{}|?/<>,.;:'`~].*");
+        boolean lowerCasePresence = password.matches(".*[a-z].*");
+        boolean capitalCasePresence = password.matches(".*[A-Z].*");
+        if (password.length() > 16 && specialCharactersPresence && lowerCasePresence && capitalCasePresence) {
+            return PasswordComplexity.VERY_STRONG;
+        } else if(password.length() > 8 && specialCharactersPresence && lowerCasePresence && capitalCasePresence) {
+            return PasswordComplexity.STRONG;
+        } else if(password.length() > 5 && !specialCharactersPresence){
+            return PasswordComplexity.MEDIUM;
+        } else {
+            return PasswordComplexity.WEAK;
+        }
+    }
+
+    @Benchmark
+    public PasswordStrength estimatePasswordStrength() {
+        return passwordStrengthEstimator.estimate(nextPassword());
+    }
+
+    private String nextPassword() {
+        return passwords[next++ & (PASSWORDS - 1)];
+    }
+}
@@ -0,0 +1,43 @@
+package com.kacper.passwordapi.benchmark;
+
+import com.kacper.passwordapi.service.PasswordGenerationEngine;
+import com.kacper.passwordapi.service.PasswordGenerationPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordGenerationBenchmark {
+
+    @Param({"8", "16", "32"})
+    private int length;
+
+    private PasswordGenerationEngine passwordGenerationEngine;
+    private PasswordGenerationPlan plan;
+
+    @Setup
+    public void setUp() {
+        passwordGenerationEngine = new PasswordGenerationEngine();
+        plan = passwordGenerationEngine.plan(length, true, true, true);
+    }
+
+    @Benchmark
+    public String generatePassword() {
+        return passwordGenerationEngine.generate(plan);
+    }
+}
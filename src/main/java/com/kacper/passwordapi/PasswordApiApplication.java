@@ -1,8 +1,15 @@
 package com.kacper.passwordapi;
 
+import com.kacper.passwordapi.config.PasswordApiRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
+@ImportRuntimeHints(PasswordApiRuntimeHints.class)
+@ConfigurationPropertiesScan
 @SpringBootApplication
 public class PasswordApiApplication {
 
@@ -0,0 +1,20 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private String clientKeyHeader;
+    private long bucketCapacity = 10_000;
+    private long refillRate = 2_000;
+    private int maxConcurrentRequests = 64;
+    private Duration concurrencyRetryAfter = Duration.ofSeconds(1);
+    private Duration idleEvictionInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,20 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.bloom-filter")
+public class BloomFilterProperties {
+    private boolean enabled = false;
+    private double falsePositiveRate = 0.01;
+    private DataSize maxMemory = DataSize.ofMegabytes(256);
+    private long minExpectedInsertions = 1_000_000;
+    private double headroom = 2.0;
+    private Duration rebuildInterval = Duration.ofHours(6);
+}
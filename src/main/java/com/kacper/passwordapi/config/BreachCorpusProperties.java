@@ -0,0 +1,15 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.breach-corpus")
+public class BreachCorpusProperties {
+    private Path path;
+    private boolean checkGenerated = false;
+}
@@ -0,0 +1,16 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.digest")
+public class DigestProperties {
+    private String key;
+    private int backfillChunkSize = 1000;
+    private Duration backfillInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,24 @@
+package com.kacper.passwordapi.config;
+
+import com.kacper.passwordapi.repository.EmbeddedPasswordStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionOperations;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "password-api.storage", name = "engine", havingValue = "embedded")
+public class EmbeddedStorageConfiguration {
+
+    @Bean
+    public EmbeddedPasswordStore embeddedPasswordStore(StorageProperties properties){
+        return new EmbeddedPasswordStore(properties.getEmbedded());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TransactionOperations transactionOperations(){
+        return TransactionOperations.withoutTransaction();
+    }
+}
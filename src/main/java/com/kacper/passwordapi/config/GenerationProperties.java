@@ -0,0 +1,16 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.generation")
+public class GenerationProperties {
+    private int parallelThreshold = 256;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int streamChunkSize = 1000;
+    private int uniqueMaxRounds = 10;
+    private int uniqueMaxAttempts = 3;
+}
@@ -0,0 +1,28 @@
+package com.kacper.passwordapi.config;
+
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.dto.RemovedPasswordsDto;
+import com.kacper.passwordapi.entity.Password;
+import com.kacper.passwordapi.exceptionhandler.ErrorResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for native images. Controller return types are registered by Spring itself, these
+ * cover what is only reached through Hibernate, the streaming {@code ObjectMapper} writers and resource locations
+ * resolved at runtime.
+ */
+public class PasswordApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader){
+        hints.reflection().registerType(Password.class, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                GeneratedPasswordDto.class, PasswordDto.class, RemovedPasswordsDto.class, ErrorResponse.class);
+        hints.resources().registerPattern("db/*.sql");
+        hints.resources().registerPattern("dictionaries/*.txt");
+    }
+}
@@ -0,0 +1,30 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.pool")
+public class PoolProperties {
+    private boolean enabled = false;
+    private int depth = 4096;
+    private int refillBatchSize = 128;
+    private int refillRate = 0;
+    private Duration idleInterval = Duration.ofMillis(10);
+    private List<Profile> profiles = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Profile {
+        private int length = 16;
+        private boolean specialCharacters = true;
+        private boolean lowerCase = true;
+        private boolean capitalCase = true;
+    }
+}
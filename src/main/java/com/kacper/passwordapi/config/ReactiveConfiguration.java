@@ -0,0 +1,23 @@
+package com.kacper.passwordapi.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Profile("reactive")
+@Configuration(proxyBeanMethods = false)
+public class ReactiveConfiguration {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(){
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordServiceScheduler(ReactiveProperties properties){
+        return Schedulers.newBoundedElastic(properties.getBlockingThreads(), properties.getQueuedTasks(), "password-service");
+    }
+}
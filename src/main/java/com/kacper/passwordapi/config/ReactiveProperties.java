@@ -0,0 +1,13 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.reactive")
+public class ReactiveProperties {
+    private int blockingThreads = 10;
+    private int queuedTasks = 100000;
+}
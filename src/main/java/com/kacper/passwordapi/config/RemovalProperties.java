@@ -0,0 +1,13 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.removal")
+public class RemovalProperties {
+    private int chunkSize = 1000;
+    private int maxPasswords = 10000;
+}
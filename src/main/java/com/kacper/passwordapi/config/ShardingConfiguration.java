@@ -0,0 +1,59 @@
+package com.kacper.passwordapi.config;
+
+import com.kacper.passwordapi.repository.PasswordJdbcRepository;
+import com.kacper.passwordapi.repository.PasswordRepository;
+import com.kacper.passwordapi.repository.ShardedPasswordRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "password-api.storage", name = "engine", havingValue = "jdbc", matchIfMissing = true)
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardedPasswordRepository shardedPasswordRepository(PasswordJdbcRepository passwordJdbcRepository, PasswordRepository passwordRepository, ShardingProperties properties, ResourceLoader resourceLoader){
+        if(properties.getShards().isEmpty()){
+            return new ShardedPasswordRepository(List.of(passwordJdbcRepository), List.of());
+        }
+        // Rows are never moved out of spring.datasource, so they would silently disappear from every lookup
+        long unsharded = passwordRepository.count();
+        if(unsharded > 0){
+            throw new IllegalStateException("spring.datasource still holds " + unsharded + " passwords, move them to the shards before enabling sharding");
+        }
+        List<PasswordJdbcRepository> shards = new ArrayList<>();
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        try {
+            for(int i = 0; i < properties.getShards().size(); i++){
+                ShardingProperties.Shard shard = properties.getShards().get(i);
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build();
+                dataSource.setPoolName("password-shard-" + i);
+                dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+                dataSources.add(dataSource);
+                DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(resourceLoader.getResource(properties.getSchema())), dataSource);
+                PasswordJdbcRepository shardRepository = new PasswordJdbcRepository(new JdbcTemplate(dataSource));
+                // Shards only ever receive rows with a digest and are never backfilled
+                shardRepository.markDigestsBackfilled();
+                shards.add(shardRepository);
+            }
+        } catch (RuntimeException exception) {
+            dataSources.forEach(HikariDataSource::close);
+            throw exception;
+        }
+        return new ShardedPasswordRepository(shards, dataSources);
+    }
+}
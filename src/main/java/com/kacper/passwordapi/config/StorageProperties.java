@@ -0,0 +1,33 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.storage")
+public class StorageProperties {
+    private Engine engine = Engine.JDBC;
+    private Embedded embedded = new Embedded();
+
+    public enum Engine {
+        JDBC,
+        EMBEDDED
+    }
+
+    @Getter
+    @Setter
+    public static class Embedded {
+        private Path directory = Path.of("data");
+        private DataSize initialSize = DataSize.ofMegabytes(64);
+        private boolean syncWrites = false;
+        private double compactionThreshold = 0.5;
+        private DataSize compactionMinSize = DataSize.ofMegabytes(16);
+        private Duration compactionInterval = Duration.ofMinutes(1);
+    }
+}
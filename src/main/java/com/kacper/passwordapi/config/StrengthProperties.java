@@ -0,0 +1,15 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.strength")
+public class StrengthProperties {
+    private boolean enabled = true;
+    private List<String> dictionaries = List.of("classpath:dictionaries/passwords.txt", "classpath:dictionaries/english.txt");
+}
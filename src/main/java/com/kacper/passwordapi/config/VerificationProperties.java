@@ -0,0 +1,12 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.verification")
+public class VerificationProperties {
+    private long maxPasswords = 1_000_000;
+}
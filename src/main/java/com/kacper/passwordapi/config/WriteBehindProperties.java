@@ -0,0 +1,25 @@
+package com.kacper.passwordapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "password-api.write-behind")
+public class WriteBehindProperties {
+    private boolean enabled = false;
+    private int capacity = 100_000;
+    private int batchSize = 1000;
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    private Duration removalTimeout = Duration.ofSeconds(30);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    public enum OverflowPolicy {
+        BLOCK,
+        CALLER_RUNS
+    }
+}
@@ -1,33 +1,70 @@
 package com.kacper.passwordapi.controller;
 
-import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.converter.GeneratedPasswordBatchHttpMessageConverter;
 import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.dto.RemovedPasswordsDto;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import com.kacper.passwordapi.service.GeneratedPasswordBatch;
 import com.kacper.passwordapi.service.PasswordService;
+import com.kacper.passwordapi.service.PasswordStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
+@Profile("!reactive")
 @Validated
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/password-api")
 public class PasswordController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final PasswordService passwordService;
+    private final PasswordStreamWriter passwordStreamWriter;
+
+    @GetMapping(value = "/passwords", produces = {MediaType.APPLICATION_JSON_VALUE, GeneratedPasswordBatchHttpMessageConverter.PASSWORD_BATCH_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public GeneratedPasswordBatch createPassword(
+            @RequestParam(name = "lgth") @Min(value = 3, message = "Password must be at least {value} characters long") @Max(value = 32, message = "Password can not be longer than {value} characters") int length,
+            @RequestParam(defaultValue = "false", name = "spclCh") boolean specialCharactersPresence,
+            @RequestParam(defaultValue = "true", name = "lwrCsLet") boolean lowerCaseLetterPresence,
+            @RequestParam(defaultValue = "false", name = "cptCsLet") boolean capitalCaseLetter,
+            @RequestParam(name = "passwords") @Min(value = 1, message = "Number of generated passwords must be at least {value}") @Max(value = 1000, message = "Number of generated passwords can not be higher than {value}") int numberOfPasswords,
+            @RequestParam(defaultValue = "false", name = "unique") boolean unique){
+        if(unique){
+            return passwordService.createUniquePasswordBatch(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, numberOfPasswords);
+        }
+        return passwordService.createPasswordBatch(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, numberOfPasswords);
+    }
 
-    @GetMapping("/passwords")
-    public List<GeneratedPasswordDto> createPassword(
+    // No produces condition, so rejected requests are answered with the usual error body whatever they accept
+    @GetMapping("/passwords/stream")
+    public ResponseEntity<StreamingResponseBody> streamPasswords(
             @RequestParam(name = "lgth") @Min(value = 3, message = "Password must be at least {value} characters long") @Max(value = 32, message = "Password can not be longer than {value} characters") int length,
             @RequestParam(defaultValue = "false", name = "spclCh") boolean specialCharactersPresence,
             @RequestParam(defaultValue = "true", name = "lwrCsLet") boolean lowerCaseLetterPresence,
             @RequestParam(defaultValue = "false", name = "cptCsLet") boolean capitalCaseLetter,
-            @RequestParam(name = "passwords") @Min(value = 1, message = "Number of generated passwords must be at least {value}") @Max(value = 1000, message = "Number of generated passwords can not be higher than {value}") int numberOfPasswords){
-        return passwordService.createPassword(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, numberOfPasswords);
+            @RequestParam(name = "passwords") @Min(value = 1, message = "Number of generated passwords must be at least {value}") @Max(value = 100000000, message = "Number of generated passwords can not be higher than {value}") long numberOfPasswords,
+            @RequestParam(defaultValue = "false", name = "unique") boolean unique){
+        passwordService.checkCharacterClasses(specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(outputStream -> passwordStreamWriter.writePasswords(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, numberOfPasswords, unique, outputStream));
     }
 
     @GetMapping("/verification/{password}")
@@ -35,8 +72,27 @@ public class PasswordController {
         return passwordService.verifyPassword(password);
     }
 
+    @PostMapping(value = "/verification", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public void verifyPasswords(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream inputStream, HttpServletResponse response) throws IOException {
+        boolean newlineDelimited = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON));
+        response.setContentType(newlineDelimited ? NDJSON : MediaType.APPLICATION_JSON_VALUE);
+        passwordStreamWriter.verifyPasswords(inputStream, newlineDelimited, response.getOutputStream());
+    }
+
     @DeleteMapping("/removal/{password}")
     public PasswordDto removePassword(@PathVariable @Size(min = 3, max = 32, message = "Password length must be between {min} and {max}") String password){
         return passwordService.removePassword(password);
     }
+
+    @PostMapping(value = "/removal", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public RemovedPasswordsDto removePasswords(@RequestBody List<String> passwords){
+        return passwordService.removePasswords(passwords);
+    }
+
+    @DeleteMapping("/removal")
+    public RemovedPasswordsDto removePasswords(
+            @RequestParam(required = false, name = "complexity") PasswordComplexity complexity,
+            @RequestParam(required = false, name = "createdBefore") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore){
+        return passwordService.removePasswords(complexity, createdBefore);
+    }
 }
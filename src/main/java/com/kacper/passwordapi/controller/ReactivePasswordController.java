@@ -0,0 +1,123 @@
+package com.kacper.passwordapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kacper.passwordapi.config.GenerationProperties;
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.dto.RemovedPasswordsDto;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import com.kacper.passwordapi.service.PasswordService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+@Profile("reactive")
+@Validated
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/password-api")
+public class ReactivePasswordController {
+
+    private final PasswordService passwordService;
+    private final GenerationProperties properties;
+    private final Scheduler passwordServiceScheduler;
+
+    @GetMapping("/passwords")
+    public Mono<List<GeneratedPasswordDto>> createPassword(
+            @RequestParam(name = "lgth") @Min(value = 3, message = "Password must be at least {value} characters long") @Max(value = 32, message = "Password can not be longer than {value} characters") int length,
+            @RequestParam(defaultValue = "false", name = "spclCh") boolean specialCharactersPresence,
+            @RequestParam(defaultValue = "true", name = "lwrCsLet") boolean lowerCaseLetterPresence,
+            @RequestParam(defaultValue = "false", name = "cptCsLet") boolean capitalCaseLetter,
+            @RequestParam(name = "passwords") @Min(value = 1, message = "Number of generated passwords must be at least {value}") @Max(value = 1000, message = "Number of generated passwords can not be higher than {value}") int numberOfPasswords,
+            @RequestParam(defaultValue = "false", name = "unique") boolean unique){
+        return Mono.fromCallable(() -> unique
+                        ? passwordService.createUniquePassword(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, numberOfPasswords)
+                        : passwordService.createPassword(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, numberOfPasswords))
+                .subscribeOn(passwordServiceScheduler);
+    }
+
+    @GetMapping(value = "/passwords/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<GeneratedPasswordDto> streamPasswords(
+            @RequestParam(name = "lgth") @Min(value = 3, message = "Password must be at least {value} characters long") @Max(value = 32, message = "Password can not be longer than {value} characters") int length,
+            @RequestParam(defaultValue = "false", name = "spclCh") boolean specialCharactersPresence,
+            @RequestParam(defaultValue = "true", name = "lwrCsLet") boolean lowerCaseLetterPresence,
+            @RequestParam(defaultValue = "false", name = "cptCsLet") boolean capitalCaseLetter,
+            @RequestParam(name = "passwords") @Min(value = 1, message = "Number of generated passwords must be at least {value}") @Max(value = 100000000, message = "Number of generated passwords can not be higher than {value}") long numberOfPasswords,
+            @RequestParam(defaultValue = "false", name = "unique") boolean unique){
+        passwordService.checkCharacterClasses(specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter);
+        int chunkSize = properties.getStreamChunkSize();
+        long chunks = (numberOfPasswords + chunkSize - 1) / chunkSize;
+        return Flux.range(0, (int) chunks)
+                .map(chunk -> (int) Math.min(chunkSize, numberOfPasswords - (long) chunk * chunkSize))
+                .concatMap(size -> Mono.fromCallable(() -> unique
+                                ? passwordService.createUniquePassword(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, size)
+                                : passwordService.createPassword(length, specialCharactersPresence, lowerCaseLetterPresence, capitalCaseLetter, size))
+                        .subscribeOn(passwordServiceScheduler), 1)
+                .flatMapIterable(Function.identity());
+    }
+
+    @GetMapping("/verification/{password}")
+    public Mono<PasswordDto> verifyPassword(@PathVariable @Size(min = 3, max = 32, message = "Password length must be between {min} and {max}") String password){
+        return Mono.fromCallable(() -> passwordService.verifyPassword(password))
+                .subscribeOn(passwordServiceScheduler);
+    }
+
+    @PostMapping(value = "/verification", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<PasswordDto> verifyPasswords(@RequestBody Flux<JsonNode> passwords){
+        return verify(passwords);
+    }
+
+    @PostMapping(value = "/verification", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PasswordDto> verifyNewlineDelimitedPasswords(@RequestBody Flux<JsonNode> passwords){
+        return verify(passwords);
+    }
+
+    @DeleteMapping("/removal/{password}")
+    public Mono<PasswordDto> removePassword(@PathVariable @Size(min = 3, max = 32, message = "Password length must be between {min} and {max}") String password){
+        return Mono.fromCallable(() -> passwordService.removePassword(password))
+                .subscribeOn(passwordServiceScheduler);
+    }
+
+    @PostMapping(value = "/removal", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<RemovedPasswordsDto> removePasswords(@RequestBody List<String> passwords){
+        return Mono.fromCallable(() -> passwordService.removePasswords(passwords))
+                .subscribeOn(passwordServiceScheduler);
+    }
+
+    @DeleteMapping("/removal")
+    public Mono<RemovedPasswordsDto> removePasswords(
+            @RequestParam(required = false, name = "complexity") PasswordComplexity complexity,
+            @RequestParam(required = false, name = "createdBefore") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore){
+        return Mono.fromCallable(() -> passwordService.removePasswords(complexity, createdBefore))
+                .subscribeOn(passwordServiceScheduler);
+    }
+
+    private Flux<PasswordDto> verify(Flux<JsonNode> passwords){
+        // Decoded as JsonNode so Jackson tokenizes arrays and NDJSON; a Flux<String> falls through to StringDecoder
+        return passwords.index()
+                .map(entry -> toPassword(entry.getT1(), entry.getT2()))
+                .buffer(properties.getStreamChunkSize())
+                .concatMap(chunk -> Mono.fromCallable(() -> passwordService.verifyPasswords(chunk))
+                        .subscribeOn(passwordServiceScheduler), 1)
+                .flatMapIterable(Function.identity());
+    }
+
+    private String toPassword(long position, JsonNode entry){
+        String password = entry.isTextual() ? entry.asText() : null;
+        passwordService.checkPasswordToVerify(position, password);
+        return password;
+    }
+}
@@ -0,0 +1,119 @@
+package com.kacper.passwordapi.converter;
+
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import com.kacper.passwordapi.service.GeneratedPasswordBatch;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a {@link GeneratedPasswordBatch} straight to the response, either as newline separated
+ * {@code text/plain} or in the columnar {@code application/x-password-batch} format:
+ * <pre>
+ * byte    version (1)
+ * int     count
+ * count x (ubyte length, UTF-8 password)
+ * count x byte complexity code (0 WEAK, 1 MEDIUM, 2 STRONG, 3 VERY_STRONG)
+ * ceil(count / 8) bytes passwordAlreadyExists bitset, least significant bit first
+ * ceil(count / 8) bytes breached bitset, least significant bit first
+ * </pre>
+ */
+@Component
+public class GeneratedPasswordBatchHttpMessageConverter extends AbstractHttpMessageConverter<GeneratedPasswordBatch> {
+
+    public static final String PASSWORD_BATCH_VALUE = "application/x-password-batch";
+    public static final MediaType PASSWORD_BATCH = MediaType.parseMediaType(PASSWORD_BATCH_VALUE);
+    public static final byte VERSION = 1;
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    public GeneratedPasswordBatchHttpMessageConverter(){
+        super(PASSWORD_BATCH, TEXT_PLAIN_UTF8);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz){
+        return GeneratedPasswordBatch.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType){
+        return false;
+    }
+
+    @Override
+    protected GeneratedPasswordBatch readInternal(Class<? extends GeneratedPasswordBatch> clazz, HttpInputMessage inputMessage){
+        throw new HttpMessageNotReadableException("Generated password batches can not be read", inputMessage);
+    }
+
+    @Override
+    protected MediaType getDefaultContentType(GeneratedPasswordBatch batch){
+        return PASSWORD_BATCH;
+    }
+
+    @Override
+    protected void writeInternal(GeneratedPasswordBatch batch, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(outputMessage.getBody()));
+        if(contentType != null && contentType.isCompatibleWith(MediaType.TEXT_PLAIN)){
+            writeText(batch, outputStream);
+        } else {
+            writeBinary(batch, outputStream);
+        }
+        outputStream.flush();
+    }
+
+    private static void writeText(GeneratedPasswordBatch batch, DataOutputStream outputStream) throws IOException {
+        for(int i = 0; i < batch.size(); i++){
+            outputStream.write(batch.getPassword(i).getBytes(StandardCharsets.UTF_8));
+            outputStream.write('\n');
+        }
+    }
+
+    private static void writeBinary(GeneratedPasswordBatch batch, DataOutputStream outputStream) throws IOException {
+        int size = batch.size();
+        outputStream.writeByte(VERSION);
+        outputStream.writeInt(size);
+        for(int i = 0; i < size; i++){
+            byte[] password = batch.getPassword(i).getBytes(StandardCharsets.UTF_8);
+            if(password.length > 0xFF){
+                throw new IllegalStateException("Password longer than 255 bytes can not be written");
+            }
+            outputStream.writeByte(password.length);
+            outputStream.write(password);
+        }
+        for(int i = 0; i < size; i++){
+            outputStream.writeByte(complexityCode(batch.getComplexity(i)));
+        }
+        byte[] alreadyExisting = new byte[(size + 7) / 8];
+        byte[] breached = new byte[alreadyExisting.length];
+        for(int i = 0; i < size; i++){
+            if(batch.isAlreadyExisting(i)){
+                alreadyExisting[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+            if(batch.isBreached(i)){
+                breached[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        outputStream.write(alreadyExisting);
+        outputStream.write(breached);
+    }
+
+    // Part of the wire format, so kept apart from the declaration order of the enum
+    private static int complexityCode(PasswordComplexity complexity){
+        return switch(complexity){
+            case WEAK -> 0;
+            case MEDIUM -> 1;
+            case STRONG -> 2;
+            case VERY_STRONG -> 3;
+        };
+    }
+}
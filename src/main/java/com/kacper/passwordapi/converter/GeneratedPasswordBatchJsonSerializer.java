@@ -0,0 +1,22 @@
+package com.kacper.passwordapi.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.kacper.passwordapi.service.GeneratedPasswordBatch;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link GeneratedPasswordBatch} as the JSON array of {@code GeneratedPasswordDto}s answered by
+ * {@code GET /passwords}.
+ */
+@JsonComponent
+public class GeneratedPasswordBatchJsonSerializer extends JsonSerializer<GeneratedPasswordBatch> {
+
+    @Override
+    public void serialize(GeneratedPasswordBatch batch, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        serializers.defaultSerializeValue(batch.toGeneratedPasswordDtos(), generator);
+    }
+}
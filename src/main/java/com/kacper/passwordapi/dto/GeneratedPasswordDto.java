@@ -13,4 +13,7 @@ public class GeneratedPasswordDto {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     @Setter
     private Boolean passwordAlreadyExists;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Setter
+    private Boolean breached;
 }
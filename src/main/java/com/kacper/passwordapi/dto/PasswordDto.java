@@ -3,6 +3,7 @@ package com.kacper.passwordapi.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
 
@@ -13,4 +14,13 @@ public class PasswordDto {
     private final String complexity;
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private final LocalDateTime created;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Setter
+    private Boolean breached;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Setter
+    private Double guessesLog10;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Setter
+    private Double entropy;
 }
@@ -0,0 +1,14 @@
+package com.kacper.passwordapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemovedPasswordsDto {
+    private long removed;
+}
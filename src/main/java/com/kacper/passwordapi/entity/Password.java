@@ -1,32 +1,55 @@
 package com.kacper.passwordapi.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "password_digest_key", columnList = "digest", unique = true))
 @NoArgsConstructor
 public class Password {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_seq")
+    @SequenceGenerator(name = "password_seq", sequenceName = "password_seq", allocationSize = 50)
     private Long id;
     private LocalDateTime created;
     private String password;
     private String complexity;
+    @Column(length = 16)
+    private byte[] digest;
+    @ColumnDefault("1")
+    private long occurrences = 1;
+    private LocalDateTime lastSeen;
 
     public Password(String password, String complexity, LocalDateTime created){
         this.password = password;
         this.complexity = complexity;
         this.created = created;
+        this.lastSeen = created;
+    }
+
+    public void merge(Password other){
+        occurrences += other.occurrences;
+        if(other.lastSeen != null && (lastSeen == null || other.lastSeen.isAfter(lastSeen))){
+            lastSeen = other.lastSeen;
+        }
+        if(other.created != null && (created == null || other.created.isBefore(created))){
+            created = other.created;
+        }
     }
 
 }
@@ -0,0 +1,16 @@
+package com.kacper.passwordapi.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter){
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
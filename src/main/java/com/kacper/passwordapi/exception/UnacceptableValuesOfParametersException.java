@@ -5,4 +5,8 @@ public class UnacceptableValuesOfParametersException extends RuntimeException{
     public UnacceptableValuesOfParametersException(){
         super("At least one parameter value must be true");
     }
+
+    public UnacceptableValuesOfParametersException(String message){
+        super(message);
+    }
 }
@@ -0,0 +1,8 @@
+package com.kacper.passwordapi.exception;
+
+public class UniquePasswordsUnavailableException extends RuntimeException {
+
+    public UniquePasswordsUnavailableException(){
+        super("Could not generate enough unique passwords with given parameters");
+    }
+}
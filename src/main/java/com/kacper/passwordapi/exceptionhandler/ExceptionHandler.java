@@ -1,32 +1,70 @@
 package com.kacper.passwordapi.exceptionhandler;
 
 import com.kacper.passwordapi.exception.NotFoundException;
+import com.kacper.passwordapi.exception.ServiceUnavailableException;
+import com.kacper.passwordapi.exception.TooManyRequestsException;
 import com.kacper.passwordapi.exception.UnacceptableValuesOfParametersException;
+import com.kacper.passwordapi.exception.UniquePasswordsUnavailableException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+
 @RestControllerAdvice
 public class ExceptionHandler {
 
     @org.springframework.web.bind.annotation.ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     public ResponseEntity<ErrorResponse> constraintViolationExceptionHandler(ConstraintViolationException exception){
-        return new ResponseEntity<>(new ErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage()), HttpStatus.UNPROCESSABLE_ENTITY);
+        return errorResponse(HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage());
     }
 
     @org.springframework.web.bind.annotation.ExceptionHandler(UnacceptableValuesOfParametersException.class)
     @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
     public ResponseEntity<ErrorResponse> unacceptableValuesOfParametersExceptionHandler(UnacceptableValuesOfParametersException exception){
-        return new ResponseEntity<>(new ErrorResponse(HttpStatus.PRECONDITION_FAILED, exception.getMessage()), HttpStatus.PRECONDITION_FAILED);
+        return errorResponse(HttpStatus.PRECONDITION_FAILED, exception.getMessage());
     }
 
     @org.springframework.web.bind.annotation.ExceptionHandler(NotFoundException.class)
     @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
     public ResponseEntity<ErrorResponse> notFoundExceptionHandler(NotFoundException exception){
-        return new ResponseEntity<>(new ErrorResponse(HttpStatus.NOT_FOUND, exception.getMessage()), HttpStatus.NOT_FOUND);
+        return errorResponse(HttpStatus.NOT_FOUND, exception.getMessage());
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(UniquePasswordsUnavailableException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> uniquePasswordsUnavailableExceptionHandler(UniquePasswordsUnavailableException exception){
+        return errorResponse(HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<ErrorResponse> tooManyRequestsExceptionHandler(TooManyRequestsException exception){
+        return retryLaterResponse(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage(), exception.getRetryAfter());
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorResponse> serviceUnavailableExceptionHandler(ServiceUnavailableException exception){
+        return retryLaterResponse(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage(), exception.getRetryAfter());
+    }
+
+    private static ResponseEntity<ErrorResponse> retryLaterResponse(HttpStatus status, String message, Duration retryAfter){
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(status, message));
+    }
+
+    private static ResponseEntity<ErrorResponse> errorResponse(HttpStatus status, String message){
+        // Set explicitly so errors are still written as JSON when the request only accepts binary or text batches
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(new ErrorResponse(status, message));
     }
 
 }
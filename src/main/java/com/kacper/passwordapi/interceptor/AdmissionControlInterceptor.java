@@ -0,0 +1,124 @@
+package com.kacper.passwordapi.interceptor;
+
+import com.kacper.passwordapi.config.AdmissionProperties;
+import com.kacper.passwordapi.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Profile("!reactive")
+@Component
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".PERMIT";
+    private static final String PASSWORDS_PARAMETER = "passwords";
+
+    private final AdmissionProperties properties;
+    private final long nanosPerPassword;
+    private final long burstNanos;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder concurrencyLimited = new LongAdder();
+
+    public AdmissionControlInterceptor(AdmissionProperties properties){
+        this.properties = properties;
+        this.nanosPerPassword = Math.max(1, TimeUnit.SECONDS.toNanos(1) / properties.getRefillRate());
+        this.burstNanos = properties.getBucketCapacity() * nanosPerPassword;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler){
+        // async dispatches of a streamed response come back through here and already hold their permit
+        if(!properties.isEnabled() || request.getAttribute(PERMIT_ATTRIBUTE) != null){
+            return true;
+        }
+        if(inFlight.incrementAndGet() > properties.getMaxConcurrentRequests()){
+            inFlight.decrementAndGet();
+            concurrencyLimited.increment();
+            throw new TooManyRequestsException("Too many concurrent requests", properties.getConcurrencyRetryAfter());
+        }
+        long now = System.nanoTime();
+        long wait = buckets.computeIfAbsent(clientKey(request), key -> new TokenBucket(now))
+                .tryAcquire(weight(request), now, nanosPerPassword, burstNanos);
+        if(wait > 0){
+            inFlight.decrementAndGet();
+            rateLimited.increment();
+            throw new TooManyRequestsException("Too many passwords requested, limit is " + properties.getRefillRate() + " per second", Duration.ofNanos(wait));
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        admitted.increment();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception){
+        if(request.getAttribute(PERMIT_ATTRIBUTE) != null){
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${password-api.admission.idle-eviction-interval:PT1M}")
+    public void evictIdleClients(){
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private String clientKey(HttpServletRequest request){
+        if(StringUtils.hasText(properties.getClientKeyHeader())){
+            String clientKey = request.getHeader(properties.getClientKeyHeader());
+            if(StringUtils.hasText(clientKey)){
+                return clientKey;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private long weight(HttpServletRequest request){
+        String passwords = request.getParameter(PASSWORDS_PARAMETER);
+        if(passwords == null){
+            return 1;
+        }
+        try{
+            // a request larger than the bucket takes all of it instead of never being admitted
+            return Math.min(Math.max(1, Long.parseLong(passwords)), properties.getBucketCapacity());
+        } catch(NumberFormatException exception){
+            return 1;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("password.admission.admitted", admitted, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("password.admission.rejected", rateLimited, LongAdder::sum)
+                .tag("reason", "rate")
+                .register(registry);
+        FunctionCounter.builder("password.admission.rejected", concurrencyLimited, LongAdder::sum)
+                .tag("reason", "concurrency")
+                .register(registry);
+        Gauge.builder("password.admission.in.flight", inFlight, AtomicInteger::get)
+                .register(registry);
+        Gauge.builder("password.admission.concurrency.limit", properties, AdmissionProperties::getMaxConcurrentRequests)
+                .register(registry);
+        Gauge.builder("password.admission.clients", buckets, Map::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.kacper.passwordapi.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single theoretical arrival time (GCRA): taking permits pushes the time forward
+ * by their refill cost, and a request is admitted while that time stays within the burst window ahead of now.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now){
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 when the permits were taken, otherwise the nanoseconds until they would be available
+     */
+    long tryAcquire(long permits, long now, long nanosPerPermit, long burstNanos){
+        while(true){
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + permits * nanosPerPermit;
+            long wait = next - now - burstNanos;
+            if(wait > 0){
+                return wait;
+            }
+            if(theoreticalArrival.compareAndSet(arrival, next)){
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long now){
+        return theoreticalArrival.get() - now <= 0;
+    }
+}
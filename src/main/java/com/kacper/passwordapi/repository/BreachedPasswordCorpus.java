@@ -0,0 +1,133 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.config.BreachCorpusProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+@Slf4j
+@Component
+public class BreachedPasswordCorpus {
+
+    public static final long MAGIC = 0x5057425245414348L;
+    public static final int HEADER_SIZE = 3 * Long.BYTES;
+    public static final int RECORD_SIZE = 20;
+    public static final int PREFIX_BITS = 16;
+    public static final int PREFIXES = 1 << PREFIX_BITS;
+
+    private static final long RECORDS_PER_SEGMENT = (1L << 30) / RECORD_SIZE;
+    private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    });
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long[] prefixIndex;
+    private final long records;
+    private final boolean checkGenerated;
+
+    public BreachedPasswordCorpus(BreachCorpusProperties properties){
+        Path path = properties.getPath();
+        this.checkGenerated = path != null && properties.isCheckGenerated();
+        if(path == null){
+            this.channel = null;
+            this.segments = new MappedByteBuffer[0];
+            this.prefixIndex = new long[PREFIXES + 1];
+            this.records = 0;
+            return;
+        }
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if(header.getLong() != MAGIC){
+                throw new IllegalStateException(path + " is not a breached password corpus");
+            }
+            this.records = header.getLong();
+            long indexOffset = header.getLong();
+            LongBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) (PREFIXES + 1) * Long.BYTES).asLongBuffer();
+            this.prefixIndex = new long[PREFIXES + 1];
+            index.get(prefixIndex);
+            int segmentCount = (int) ((records + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for(int i = 0; i < segmentCount; i++){
+                long firstRecord = i * RECORDS_PER_SEGMENT;
+                long segmentRecords = Math.min(RECORDS_PER_SEGMENT, records - firstRecord);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + firstRecord * RECORD_SIZE, segmentRecords * RECORD_SIZE);
+            }
+            log.info("Opened breached password corpus {} with {} hashes", path, records);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not open breached password corpus " + path, exception);
+        }
+    }
+
+    public boolean isEnabled(){
+        return channel != null;
+    }
+
+    public boolean isCheckingGenerated(){
+        return checkGenerated;
+    }
+
+    public long size(){
+        return records;
+    }
+
+    public boolean contains(String password){
+        if(channel == null){
+            return false;
+        }
+        byte[] hash = SHA1.get().digest(password.getBytes(StandardCharsets.UTF_8));
+        int prefix = (hash[0] & 0xFF) << 8 | (hash[1] & 0xFF);
+        long low = prefixIndex[prefix];
+        long high = prefixIndex[prefix + 1] - 1;
+        while(low <= high){
+            long middle = (low + high) >>> 1;
+            int comparison = compare(middle, hash);
+            if(comparison < 0){
+                low = middle + 1;
+            } else if(comparison > 0){
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if(channel != null){
+            channel.close();
+        }
+    }
+
+    private int compare(long record, byte[] hash){
+        MappedByteBuffer segment = segments[(int) (record / RECORDS_PER_SEGMENT)];
+        int offset = (int) (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        for(int i = 0; i < RECORD_SIZE; i++){
+            int comparison = Integer.compare(segment.get(offset + i) & 0xFF, hash[i] & 0xFF);
+            if(comparison != 0){
+                return comparison;
+            }
+        }
+        return 0;
+    }
+}
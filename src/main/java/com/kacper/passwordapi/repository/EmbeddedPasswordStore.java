@@ -0,0 +1,467 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.config.StorageProperties;
+import com.kacper.passwordapi.entity.Password;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class EmbeddedPasswordStore implements PasswordStore, MeterBinder {
+
+    private static final Pattern LOG_FILE = Pattern.compile("passwords-(\\d+)\\.log");
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final StorageProperties.Embedded properties;
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object compactionMonitor = new Object();
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final LongAdder compactions = new LongAdder();
+
+    private PasswordLog passwordLog;
+    private PasswordIndex index;
+    private long generation;
+    private long deadBytes;
+    private boolean closed;
+
+    public EmbeddedPasswordStore(StorageProperties.Embedded properties){
+        this.properties = properties;
+        this.directory = properties.getDirectory();
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve("store.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            fileLock = lockChannel.tryLock();
+            if(fileLock == null){
+                lockChannel.close();
+                throw new IllegalStateException("Password store " + directory + " is used by another process");
+            }
+            generation = removeStaleFiles();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not open password store " + directory, exception);
+        }
+        index = new PasswordIndex(1024);
+        passwordLog = PasswordLog.open(logFile(generation), initialSize(), (recovered, offset, type) -> deadBytes += replay(recovered, index, offset, type));
+        log.info("Opened password store {} with {} passwords", passwordLog.path(), index.size());
+    }
+
+    // Keeps the newest complete generation; older ones and unfinished compactions are leftovers of a crash
+    private long removeStaleFiles() throws IOException {
+        long newest = 0;
+        List<Path> logs = new ArrayList<>();
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)){
+            for(Path file : files){
+                String name = file.getFileName().toString();
+                Matcher matcher = LOG_FILE.matcher(name);
+                if(matcher.matches()){
+                    logs.add(file);
+                    newest = Math.max(newest, Long.parseLong(matcher.group(1)));
+                } else if(name.endsWith(COMPACTING_SUFFIX)){
+                    Files.delete(file);
+                }
+            }
+        }
+        for(Path file : logs){
+            if(!file.equals(logFile(newest))){
+                Files.delete(file);
+            }
+        }
+        return newest;
+    }
+
+    private Path logFile(long generation){
+        return directory.resolve("passwords-" + generation + ".log");
+    }
+
+    private int initialSize(){
+        return (int) Math.min(Integer.MAX_VALUE, properties.getInitialSize().toBytes());
+    }
+
+    private static long replay(PasswordLog records, PasswordIndex index, int offset, byte type){
+        byte[] key = records.key(offset);
+        IntPredicate sameKey = candidate -> records.keyEquals(candidate, key);
+        if(type == PasswordLog.PUT){
+            int previous = index.put(PasswordIndex.hash(key), offset, sameKey);
+            return previous == PasswordIndex.ABSENT ? 0 : records.recordSize(previous);
+        }
+        int previous = index.remove(PasswordIndex.hash(key), sameKey);
+        return records.recordSize(offset) + (previous == PasswordIndex.ABSENT ? 0 : records.recordSize(previous));
+    }
+
+    private int lookup(byte[] key){
+        return index.get(PasswordIndex.hash(key), candidate -> passwordLog.keyEquals(candidate, key));
+    }
+
+    private static byte[] key(String password){
+        return password.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public List<Password> findByDigestAndPassword(byte[] digest, String password){
+        lock.readLock().lock();
+        try {
+            int offset = lookup(key(password));
+            return offset == PasswordIndex.ABSENT ? List.of() : List.of(passwordLog.read(offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Password> findAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords){
+        List<Password> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for(String password : new LinkedHashSet<>(passwords)){
+                int offset = lookup(key(password));
+                if(offset != PasswordIndex.ABSENT){
+                    found.add(passwordLog.read(offset));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public Set<String> findExistingPasswords(List<byte[]> digests, List<String> passwords){
+        Set<String> existing = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for(String password : passwords){
+                if(lookup(key(password)) != PasswordIndex.ABSENT){
+                    existing.add(password);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return existing;
+    }
+
+    @Override
+    public void upsertAll(Collection<Password> passwords){
+        lock.writeLock().lock();
+        try {
+            for(Password password : passwords){
+                int offset = lookup(key(password.getPassword()));
+                if(offset == PasswordIndex.ABSENT){
+                    put(password);
+                    continue;
+                }
+                Password stored = passwordLog.read(offset);
+                stored.setOccurrences(stored.getOccurrences() + password.getOccurrences());
+                if(password.getLastSeen() != null && (stored.getLastSeen() == null || password.getLastSeen().isAfter(stored.getLastSeen()))){
+                    stored.setLastSeen(password.getLastSeen());
+                }
+                put(stored);
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void insertAll(Collection<Password> passwords){
+        lock.writeLock().lock();
+        try {
+            Set<String> inserted = new HashSet<>();
+            for(Password password : passwords){
+                if(!inserted.add(password.getPassword()) || lookup(key(password.getPassword())) != PasswordIndex.ABSENT){
+                    throw new DuplicateKeyException("Password already exists in the embedded store");
+                }
+            }
+            passwords.forEach(this::put);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Password password){
+        byte[] key = key(password.getPassword());
+        int offset = passwordLog.appendPut(password);
+        int previous = index.put(PasswordIndex.hash(key), offset, candidate -> passwordLog.keyEquals(candidate, key));
+        if(previous != PasswordIndex.ABSENT){
+            deadBytes += passwordLog.recordSize(previous);
+        }
+    }
+
+    private Password remove(String password){
+        byte[] key = key(password);
+        int removed = index.remove(PasswordIndex.hash(key), candidate -> passwordLog.keyEquals(candidate, key));
+        if(removed == PasswordIndex.ABSENT){
+            return null;
+        }
+        int tombstone = passwordLog.appendDelete(key);
+        deadBytes += passwordLog.recordSize(removed) + passwordLog.recordSize(tombstone);
+        return passwordLog.read(removed);
+    }
+
+    @Override
+    public Password deleteByDigestAndPassword(byte[] digest, String password){
+        lock.writeLock().lock();
+        try {
+            Password removed = remove(password);
+            sync();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> deleteAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords){
+        List<String> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for(String password : new LinkedHashSet<>(passwords)){
+                if(remove(password) != null){
+                    removed.add(password);
+                }
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    @Override
+    public long deleteAll(String complexity, LocalDateTime createdBefore, int chunkSize){
+        List<String> matching = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            index.forEach(offset -> {
+                Password password = passwordLog.read(offset);
+                if(matches(password, complexity, createdBefore)){
+                    matching.add(password.getPassword());
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        long removed = 0;
+        for(int from = 0; from < matching.size(); from += chunkSize){
+            lock.writeLock().lock();
+            try {
+                for(String password : matching.subList(from, Math.min(from + chunkSize, matching.size()))){
+                    int offset = lookup(key(password));
+                    // the password may have been removed or stored again since the scan
+                    if(offset != PasswordIndex.ABSENT && matches(passwordLog.read(offset), complexity, createdBefore)){
+                        remove(password);
+                        removed++;
+                    }
+                }
+                sync();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return removed;
+    }
+
+    private static boolean matches(Password password, String complexity, LocalDateTime createdBefore){
+        return (complexity == null || complexity.equals(password.getComplexity()))
+                && (createdBefore == null || password.getCreated() != null && password.getCreated().isBefore(createdBefore));
+    }
+
+    @Override
+    public long count(){
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachPassword(Consumer<String> action){
+        lock.readLock().lock();
+        try {
+            index.forEach(offset -> action.accept(passwordLog.password(offset)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void sync(){
+        if(properties.isSyncWrites()){
+            passwordLog.force();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${password-api.storage.embedded.compaction-interval:PT1M}")
+    public void compactIfNeeded(){
+        boolean needed;
+        lock.readLock().lock();
+        try {
+            needed = !closed && passwordLog.size() >= properties.getCompactionMinSize().toBytes() && deadBytes >= passwordLog.size() * properties.getCompactionThreshold();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if(needed){
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the live records into a new generation of the log. Records are copied under short
+     * read locks so writers keep going; only the records appended meanwhile are replayed under the
+     * write lock right before the new log replaces the old one.
+     */
+    public void compact(){
+        synchronized(compactionMonitor){
+            PasswordLog current;
+            int end;
+            int liveRecords;
+            long liveBytes;
+            lock.readLock().lock();
+            try {
+                if(closed){
+                    return;
+                }
+                current = passwordLog;
+                end = current.size();
+                liveRecords = index.size();
+                liveBytes = end - deadBytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+            long nextGeneration = generation + 1;
+            Path target = directory.resolve(logFile(nextGeneration).getFileName() + COMPACTING_SUFFIX);
+            deleteQuietly(target);
+            PasswordLog next = PasswordLog.open(target, (int) Math.max(initialSize(), Math.min(Integer.MAX_VALUE, liveBytes * 2)), (recovered, offset, type) -> {});
+            boolean replaced = false;
+            try {
+                PasswordIndex nextIndex = new PasswordIndex(liveRecords);
+                for(int offset = 0; offset < end; ){
+                    lock.readLock().lock();
+                    try {
+                        if(current.type(offset) == PasswordLog.PUT && lookup(current.key(offset)) == offset){
+                            replay(next, nextIndex, next.copy(current, offset), PasswordLog.PUT);
+                        }
+                        offset += current.recordSize(offset);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+                lock.writeLock().lock();
+                try {
+                    long nextDeadBytes = 0;
+                    for(int offset = end; offset < current.size(); offset += current.recordSize(offset)){
+                        byte[] key = current.key(offset);
+                        // a tombstone is only worth keeping if it hides a record that made it into the new log
+                        if(current.type(offset) == PasswordLog.PUT || nextIndex.get(PasswordIndex.hash(key), candidate -> next.keyEquals(candidate, key)) != PasswordIndex.ABSENT){
+                            nextDeadBytes += replay(next, nextIndex, next.copy(current, offset), current.type(offset));
+                        }
+                    }
+                    next.force();
+                    Path live = logFile(nextGeneration);
+                    Files.move(target, live, StandardCopyOption.ATOMIC_MOVE);
+                    next.moveTo(live);
+                    passwordLog = next;
+                    index = nextIndex;
+                    deadBytes = nextDeadBytes;
+                    generation = nextGeneration;
+                    replaced = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Could not compact password store " + directory, exception);
+            } finally {
+                if(!replaced){
+                    next.close();
+                    deleteQuietly(target);
+                }
+            }
+            current.close();
+            deleteQuietly(current.path());
+            compactions.increment();
+            log.info("Compacted password store from {} to {} bytes", end, liveBytes);
+        }
+    }
+
+    private static void deleteQuietly(Path file){
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            log.warn("Could not delete {}", file, exception);
+        }
+    }
+
+    @Override
+    public void close(){
+        lock.writeLock().lock();
+        try {
+            if(closed){
+                return;
+            }
+            closed = true;
+            passwordLog.close();
+            fileLock.release();
+            lockChannel.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.store.log.size", this, store -> store.underReadLock(() -> store.passwordLog.size()))
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("password.store.log.dead", this, store -> store.underReadLock(() -> store.deadBytes))
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("password.store.passwords", this, store -> store.underReadLock(() -> store.index.size()))
+                .register(registry);
+        FunctionCounter.builder("password.store.compactions", compactions, LongAdder::sum)
+                .register(registry);
+    }
+
+    private double underReadLock(LongSupplier value){
+        lock.readLock().lock();
+        try {
+            return value.getAsLong();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
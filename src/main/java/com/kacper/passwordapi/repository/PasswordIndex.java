@@ -0,0 +1,127 @@
+package com.kacper.passwordapi.repository;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Open-addressing hash index from password to the offset of its live record. Keys are not
+ * stored here: a slot keeps the key hash and the record offset, and candidates with a matching
+ * hash are confirmed against the log. Removal shifts the following cluster back instead of
+ * leaving tombstones, so lookups never degrade after many deletions.
+ */
+final class PasswordIndex {
+
+    static final int ABSENT = -1;
+
+    private int[] offsets;
+    private int[] hashes;
+    private int mask;
+    private int size;
+
+    PasswordIndex(int expectedSize){
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    static int hash(byte[] key){
+        int hash = 1;
+        for(byte b : key){
+            hash = 31 * hash + b;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    int size(){
+        return size;
+    }
+
+    int get(int hash, IntPredicate matches){
+        for(int slot = hash & mask; offsets[slot] != ABSENT; slot = (slot + 1) & mask){
+            if(hashes[slot] == hash && matches.test(offsets[slot])){
+                return offsets[slot];
+            }
+        }
+        return ABSENT;
+    }
+
+    int put(int hash, int offset, IntPredicate matches){
+        int slot = hash & mask;
+        for(; offsets[slot] != ABSENT; slot = (slot + 1) & mask){
+            if(hashes[slot] == hash && matches.test(offsets[slot])){
+                int previous = offsets[slot];
+                offsets[slot] = offset;
+                return previous;
+            }
+        }
+        offsets[slot] = offset;
+        hashes[slot] = hash;
+        if(++size * 10 > offsets.length * 7){
+            resize();
+        }
+        return ABSENT;
+    }
+
+    int remove(int hash, IntPredicate matches){
+        int slot = hash & mask;
+        for(; offsets[slot] != ABSENT; slot = (slot + 1) & mask){
+            if(hashes[slot] == hash && matches.test(offsets[slot])){
+                int removed = offsets[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+        }
+        return ABSENT;
+    }
+
+    void forEach(IntConsumer action){
+        for(int offset : offsets){
+            if(offset != ABSENT){
+                action.accept(offset);
+            }
+        }
+    }
+
+    private void shiftBack(int gap){
+        for(int slot = (gap + 1) & mask; offsets[slot] != ABSENT; slot = (slot + 1) & mask){
+            int home = hashes[slot] & mask;
+            // the entry may move into the gap only if its home slot does not lie cyclically in (gap, slot]
+            boolean movable = gap <= slot ? home <= gap || home > slot : home <= gap && home > slot;
+            if(movable){
+                offsets[gap] = offsets[slot];
+                hashes[gap] = hashes[slot];
+                gap = slot;
+            }
+        }
+        offsets[gap] = ABSENT;
+    }
+
+    private void resize(){
+        int[] oldOffsets = offsets;
+        int[] oldHashes = hashes;
+        allocate(oldOffsets.length << 1);
+        for(int i = 0; i < oldOffsets.length; i++){
+            if(oldOffsets[i] != ABSENT){
+                int slot = oldHashes[i] & mask;
+                while(offsets[slot] != ABSENT){
+                    slot = (slot + 1) & mask;
+                }
+                offsets[slot] = oldOffsets[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity){
+        offsets = new int[capacity];
+        hashes = new int[capacity];
+        Arrays.fill(offsets, ABSENT);
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,313 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+@ConditionalOnProperty(prefix = "password-api.storage", name = "engine", havingValue = "jdbc", matchIfMissing = true)
+public class PasswordJdbcRepository {
+
+    private static final String POSTGRES_UPSERT = """
+            insert into password (id, created, password, complexity, digest, occurrences, last_seen)
+            values (?, ?, ?, ?, ?, ?, ?)
+            on conflict (digest) do update
+            set occurrences = password.occurrences + excluded.occurrences,
+                last_seen = greatest(password.last_seen, excluded.last_seen)""";
+
+    private static final String H2_UPSERT = """
+            merge into password p
+            using (select cast(? as bigint) as id, cast(? as timestamp) as created, cast(? as varchar) as password, cast(? as varchar) as complexity,
+                    cast(? as varbinary) as digest, cast(? as bigint) as occurrences, cast(? as timestamp) as last_seen) v
+            on p.digest = v.digest
+            when matched then update set occurrences = p.occurrences + v.occurrences, last_seen = greatest(p.last_seen, v.last_seen)
+            when not matched then insert (id, created, password, complexity, digest, occurrences, last_seen)
+                values (v.id, v.created, v.password, v.complexity, v.digest, v.occurrences, v.last_seen)""";
+
+    private static final String INSERT = """
+            insert into password (id, created, password, complexity, digest, occurrences, last_seen)
+            values (?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String COLUMNS = "id, created, password, complexity, digest, occurrences, last_seen";
+
+    private static final String DIGEST_AND_PASSWORD = "digest = ? and password = ?";
+
+    private static final String LEGACY_DIGEST_AND_PASSWORD = "(digest = ? or digest is null) and password = ?";
+
+    private static final RowMapper<Password> PASSWORD_MAPPER = (resultSet, rowNumber) -> {
+        Password password = new Password(resultSet.getString("password"), resultSet.getString("complexity"), toLocalDateTime(resultSet.getTimestamp("created")));
+        password.setId(resultSet.getLong("id"));
+        password.setDigest(resultSet.getBytes("digest"));
+        password.setOccurrences(resultSet.getLong("occurrences"));
+        password.setLastSeen(toLocalDateTime(resultSet.getTimestamp("last_seen")));
+        return password;
+    };
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private long nextId = 1;
+    private long maxId;
+    private volatile boolean digestsBackfilled;
+
+    public PasswordJdbcRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+    }
+
+    public boolean isPostgres(){
+        return postgres;
+    }
+
+    DataSource getDataSource(){
+        return jdbcTemplate.getDataSource();
+    }
+
+    public boolean isDigestsBackfilled(){
+        return digestsBackfilled;
+    }
+
+    // Once every row carries a digest, lookups no longer need the `digest is null` branch
+    public void markDigestsBackfilled(){
+        digestsBackfilled = true;
+    }
+
+    public void upsertAll(Collection<Password> passwords){
+        write(postgres ? POSTGRES_UPSERT : H2_UPSERT, aggregate(passwords));
+    }
+
+    public void insertAll(Collection<Password> passwords){
+        write(INSERT, List.copyOf(passwords));
+    }
+
+    public List<Password> findByDigestAndPassword(byte[] digest, String password){
+        return jdbcTemplate.query("select " + COLUMNS + " from password where " + digestAndPassword(), PASSWORD_MAPPER, digest, password);
+    }
+
+    public List<Password> findAllByDigestsAndPasswords(Collection<byte[]> digests, Collection<String> passwords){
+        if(passwords.isEmpty()){
+            return List.of();
+        }
+        return jdbcTemplate.query("select " + COLUMNS + " from password where " + digestsAndPasswords(digests, passwords), PASSWORD_MAPPER, arguments(digests, passwords));
+    }
+
+    public Set<String> findExistingPasswords(Collection<byte[]> digests, Collection<String> passwords){
+        if(passwords.isEmpty()){
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("select password from password where " + digestsAndPasswords(digests, passwords), String.class, arguments(digests, passwords)));
+    }
+
+    public long count(){
+        Long count = jdbcTemplate.queryForObject("select count(*) from password", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public void forEachPassword(Consumer<String> action){
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            // PostgreSQL only honours the fetch size outside auto-commit
+            boolean autoCommit = connection.getAutoCommit();
+            if(autoCommit){
+                connection.setAutoCommit(false);
+            }
+            try(PreparedStatement statement = connection.prepareStatement("select password from password")){
+                statement.setFetchSize(STREAM_FETCH_SIZE);
+                try(ResultSet resultSet = statement.executeQuery()){
+                    while(resultSet.next()){
+                        action.accept(resultSet.getString(1));
+                    }
+                }
+            } finally {
+                if(autoCommit){
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            }
+            return null;
+        });
+    }
+
+    public Password deleteByDigestAndPassword(byte[] digest, String password){
+        String delete = "delete from password where " + digestAndPassword();
+        String sql = postgres ? delete + " returning " + COLUMNS : "select " + COLUMNS + " from old table (" + delete + ")";
+        List<Password> removed = jdbcTemplate.query(sql, PASSWORD_MAPPER, digest, password);
+        return removed.isEmpty() ? null : removed.get(0);
+    }
+
+    public List<String> deleteAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords){
+        if(passwords.isEmpty()){
+            return List.of();
+        }
+        String delete = "delete from password where " + digestsAndPasswords(digests, passwords);
+        String sql = postgres ? delete + " returning password" : "select password from old table (" + delete + ")";
+        return jdbcTemplate.queryForList(sql, String.class, arguments(digests, passwords));
+    }
+
+    public int deleteChunk(String complexity, LocalDateTime createdBefore, int chunkSize){
+        StringBuilder sql = new StringBuilder("delete from password where id in (select id from password where 1 = 1");
+        List<Object> arguments = new ArrayList<>(3);
+        if(complexity != null){
+            sql.append(" and complexity = ?");
+            arguments.add(complexity);
+        }
+        if(createdBefore != null){
+            sql.append(" and created < ?");
+            arguments.add(Timestamp.valueOf(createdBefore));
+        }
+        sql.append(" limit ?)");
+        arguments.add(chunkSize);
+        return jdbcTemplate.update(sql.toString(), arguments.toArray());
+    }
+
+    private void write(String sql, List<Password> passwords){
+        if(passwords.isEmpty()){
+            return;
+        }
+        long[] ids = allocateIds(passwords.size());
+        try {
+            batchUpdate(sql, passwords, ids);
+        } catch (DataIntegrityViolationException exception) {
+            // Batch failures are not always translated by error code, H2 reports a unique violation as a plain integrity violation
+            if(!(exception instanceof DuplicateKeyException) && isUniqueViolation(exception)){
+                throw new DuplicateKeyException(exception.getMessage(), exception.getCause());
+            }
+            throw exception;
+        }
+    }
+
+    private void batchUpdate(String sql, List<Password> passwords, long[] ids){
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                Password password = passwords.get(index);
+                statement.setLong(1, ids[index]);
+                statement.setTimestamp(2, password.getCreated() == null ? null : Timestamp.valueOf(password.getCreated()));
+                statement.setString(3, password.getPassword());
+                statement.setString(4, password.getComplexity());
+                statement.setBytes(5, password.getDigest());
+                statement.setLong(6, password.getOccurrences());
+                statement.setTimestamp(7, password.getLastSeen() == null ? null : Timestamp.valueOf(password.getLastSeen()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return passwords.size();
+            }
+        });
+    }
+
+    private static boolean isUniqueViolation(Throwable exception){
+        for(Throwable cause = exception; cause != null; cause = cause.getCause()){
+            if(cause instanceof SQLException sqlException){
+                for(SQLException next = sqlException; next != null; next = next.getNextException()){
+                    if(UNIQUE_VIOLATION.equals(next.getSQLState())){
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Rows written before ids came from password_seq can be ahead of a freshly created sequence; moves it past them,
+    // never backwards, and returns whether it had to
+    public boolean alignIdSequence(){
+        Long maxExistingId = jdbcTemplate.queryForObject("select max(id) from password", Long.class);
+        if(maxExistingId == null){
+            return false;
+        }
+        Long nextValue = postgres
+                ? jdbcTemplate.queryForObject("select case when is_called then last_value + ? else last_value end from password_seq", Long.class, ID_ALLOCATION_SIZE)
+                : jdbcTemplate.queryForObject("select base_value from information_schema.sequences where sequence_name = 'PASSWORD_SEQ'", Long.class);
+        if(nextValue - ID_ALLOCATION_SIZE >= maxExistingId){
+            return false;
+        }
+        jdbcTemplate.execute("alter sequence password_seq restart with " + (maxExistingId + ID_ALLOCATION_SIZE));
+        return true;
+    }
+
+    // Same pooled scheme as the entity's sequence generator: every sequence value v reserves (v - 50, v],
+    // so ids handed out here never overlap with the ones Hibernate allocates.
+    private synchronized long[] allocateIds(int count){
+        long[] ids = new long[count];
+        for(int i = 0; i < count; i++){
+            if(nextId > maxId){
+                maxId = jdbcTemplate.queryForObject(postgres ? "select nextval('password_seq')" : "select next value for password_seq", Long.class);
+                nextId = Math.max(1, maxId - ID_ALLOCATION_SIZE + 1);
+            }
+            ids[i] = nextId++;
+        }
+        return ids;
+    }
+
+    private String digestAndPassword(){
+        return digestsBackfilled ? DIGEST_AND_PASSWORD : LEGACY_DIGEST_AND_PASSWORD;
+    }
+
+    private String digestsAndPasswords(Collection<byte[]> digests, Collection<String> passwords){
+        String digestIn = "digest in (" + String.join(", ", Collections.nCopies(digests.size(), "?")) + ")";
+        return (digestsBackfilled ? digestIn : "(" + digestIn + " or digest is null)") + " and password in ("
+                + String.join(", ", Collections.nCopies(passwords.size(), "?")) + ")";
+    }
+
+    private static Object[] arguments(Collection<byte[]> digests, Collection<String> passwords){
+        List<Object> arguments = new ArrayList<>(digests.size() + passwords.size());
+        arguments.addAll(digests);
+        arguments.addAll(passwords);
+        return arguments.toArray();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp){
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static List<Password> aggregate(Collection<Password> passwords){
+        Map<ByteBuffer, Password> aggregated = new LinkedHashMap<>();
+        List<Password> withoutDigest = new ArrayList<>();
+        for(Password password : passwords){
+            if(password.getDigest() == null){
+                withoutDigest.add(password);
+                continue;
+            }
+            aggregated.merge(ByteBuffer.wrap(password.getDigest()), password, (first, second) -> {
+                Password merged = new Password(first.getPassword(), first.getComplexity(), first.getCreated());
+                merged.setDigest(first.getDigest());
+                merged.setOccurrences(first.getOccurrences());
+                merged.setLastSeen(first.getLastSeen());
+                merged.merge(second);
+                return merged;
+            });
+        }
+        List<Password> result = new ArrayList<>(aggregated.values());
+        result.addAll(withoutDigest);
+        return result;
+    }
+}
@@ -0,0 +1,232 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped record log. Every record is laid out as
+ * {@code [int bodyLength][int crc32][body]} and the length is written last, so a record
+ * torn by a crash is never mistaken for a complete one during recovery.
+ */
+final class PasswordLog implements AutoCloseable {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final int HEADER_SIZE = 8;
+    static final int MAX_KEY_LENGTH = 0xFFFF;
+
+    private static final int PASSWORD_OFFSET = HEADER_SIZE + 1 + 2;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    interface RecordVisitor {
+        void visit(PasswordLog log, int offset, byte type);
+    }
+
+    private final FileChannel channel;
+    private Path path;
+    private MappedByteBuffer buffer;
+    private int size;
+
+    private PasswordLog(Path path, FileChannel channel, int capacity) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    static PasswordLog open(Path path, int initialCapacity, RecordVisitor visitor){
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int capacity = (int) Math.max(initialCapacity, Math.min(channel.size(), Integer.MAX_VALUE));
+            PasswordLog log = new PasswordLog(path, channel, capacity);
+            log.recover(visitor);
+            return log;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void recover(RecordVisitor visitor){
+        int position = 0;
+        CRC32 crc = new CRC32();
+        while(position + HEADER_SIZE <= buffer.capacity()){
+            int length = buffer.getInt(position);
+            if(length <= 0 || length > buffer.capacity() - position - HEADER_SIZE){
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + HEADER_SIZE, length));
+            if((int) crc.getValue() != buffer.getInt(position + 4)){
+                break;
+            }
+            visitor.visit(this, position, buffer.get(position + HEADER_SIZE));
+            position += HEADER_SIZE + length;
+        }
+        size = position;
+        // Whatever follows the last valid record is a torn write; clear it so later appends start from zeroes
+        int i = position;
+        for(; i + 8 <= buffer.capacity(); i += 8){
+            if(buffer.getLong(i) != 0){
+                buffer.putLong(i, 0);
+            }
+        }
+        for(; i < buffer.capacity(); i++){
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    Path path(){
+        return path;
+    }
+
+    void moveTo(Path path){
+        this.path = path;
+    }
+
+    int size(){
+        return size;
+    }
+
+    int recordSize(int offset){
+        return HEADER_SIZE + buffer.getInt(offset);
+    }
+
+    byte type(int offset){
+        return buffer.get(offset + HEADER_SIZE);
+    }
+
+    int appendPut(Password password){
+        byte[] key = password.getPassword().getBytes(StandardCharsets.UTF_8);
+        if(key.length > MAX_KEY_LENGTH){
+            throw new IllegalArgumentException("Password longer than " + MAX_KEY_LENGTH + " bytes cannot be stored");
+        }
+        byte[] complexity = password.getComplexity() == null ? new byte[0] : password.getComplexity().getBytes(StandardCharsets.UTF_8);
+        byte[] digest = password.getDigest() == null ? new byte[0] : password.getDigest();
+        ByteBuffer body = ByteBuffer.allocate(1 + 2 + key.length + 1 + complexity.length + 1 + digest.length + 8 + 2 * 12);
+        body.put(PUT).putShort((short) key.length).put(key)
+                .put((byte) complexity.length).put(complexity)
+                .put((byte) digest.length).put(digest)
+                .putLong(password.getOccurrences());
+        putTime(body, password.getCreated());
+        putTime(body, password.getLastSeen());
+        return append(body.array());
+    }
+
+    int appendDelete(byte[] key){
+        ByteBuffer body = ByteBuffer.allocate(1 + 2 + key.length);
+        body.put(DELETE).putShort((short) key.length).put(key);
+        return append(body.array());
+    }
+
+    int copy(PasswordLog source, int offset){
+        byte[] body = new byte[source.buffer.getInt(offset)];
+        source.buffer.get(offset + HEADER_SIZE, body);
+        return append(body);
+    }
+
+    private int append(byte[] body){
+        ensureCapacity(HEADER_SIZE + body.length);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        int offset = size;
+        buffer.put(offset + HEADER_SIZE, body);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        buffer.putInt(offset, body.length);
+        size += HEADER_SIZE + body.length;
+        return offset;
+    }
+
+    private void ensureCapacity(int needed){
+        if(needed <= buffer.capacity() - size){
+            return;
+        }
+        if(needed > Integer.MAX_VALUE - size){
+            throw new IllegalStateException("Password log " + path + " exceeds 2 GB, compaction cannot keep up");
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(2L * buffer.capacity(), (long) size + needed));
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    byte[] key(int offset){
+        byte[] key = new byte[keyLength(offset)];
+        buffer.get(offset + PASSWORD_OFFSET, key);
+        return key;
+    }
+
+    boolean keyEquals(int offset, byte[] key){
+        if(keyLength(offset) != key.length){
+            return false;
+        }
+        for(int i = 0; i < key.length; i++){
+            if(buffer.get(offset + PASSWORD_OFFSET + i) != key[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int keyLength(int offset){
+        return buffer.getShort(offset + HEADER_SIZE + 1) & 0xFFFF;
+    }
+
+    String password(int offset){
+        return new String(key(offset), StandardCharsets.UTF_8);
+    }
+
+    Password read(int offset){
+        int position = offset + PASSWORD_OFFSET + keyLength(offset);
+        byte[] complexity = new byte[buffer.get(position) & 0xFF];
+        buffer.get(position + 1, complexity);
+        position += 1 + complexity.length;
+        byte[] digest = new byte[buffer.get(position) & 0xFF];
+        buffer.get(position + 1, digest);
+        position += 1 + digest.length;
+        Password password = new Password(password(offset), complexity.length == 0 ? null : new String(complexity, StandardCharsets.UTF_8), getTime(position + 8));
+        password.setDigest(digest.length == 0 ? null : digest);
+        password.setOccurrences(buffer.getLong(position));
+        password.setLastSeen(getTime(position + 8 + 12));
+        return password;
+    }
+
+    void force(){
+        buffer.force();
+    }
+
+    @Override
+    public void close(){
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void putTime(ByteBuffer body, LocalDateTime time){
+        if(time == null){
+            body.putLong(NO_TIME).putInt(0);
+        } else {
+            body.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+        }
+    }
+
+    private LocalDateTime getTime(int position){
+        long seconds = buffer.getLong(position);
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, buffer.getInt(position + 8), ZoneOffset.UTC);
+    }
+}
@@ -1,13 +1,17 @@
 package com.kacper.passwordapi.repository;
 
 import com.kacper.passwordapi.entity.Password;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PasswordRepository extends JpaRepository<Password, Long> {
 
-    Password findFirstByPassword(String password);
+    List<Password> findByDigestIsNull(Pageable pageable);
 
-    void deleteByPassword(String password);
+    List<Password> findByDigestIn(Collection<byte[]> digests);
 }
@@ -0,0 +1,35 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface PasswordStore extends AutoCloseable {
+
+    List<Password> findByDigestAndPassword(byte[] digest, String password);
+
+    List<Password> findAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords);
+
+    Set<String> findExistingPasswords(List<byte[]> digests, List<String> passwords);
+
+    void upsertAll(Collection<Password> passwords);
+
+    /**
+     * Stores passwords that must not exist yet; throws {@link org.springframework.dao.DuplicateKeyException} otherwise.
+     */
+    void insertAll(Collection<Password> passwords);
+
+    Password deleteByDigestAndPassword(byte[] digest, String password);
+
+    List<String> deleteAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords);
+
+    long deleteAll(String complexity, LocalDateTime createdBefore, int chunkSize);
+
+    long count();
+
+    void forEachPassword(Consumer<String> action);
+}
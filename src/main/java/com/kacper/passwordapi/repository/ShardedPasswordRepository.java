@@ -0,0 +1,285 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class ShardedPasswordRepository implements PasswordStore {
+
+    private final List<PasswordJdbcRepository> shards;
+    private final List<TransactionOperations> transactions;
+    private final List<? extends AutoCloseable> resources;
+    private final ExecutorService executor;
+
+    public ShardedPasswordRepository(List<PasswordJdbcRepository> shards, List<? extends AutoCloseable> resources){
+        if(shards.isEmpty()){
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.resources = List.copyOf(resources);
+        if(shards.size() > 1){
+            List<TransactionOperations> transactions = new ArrayList<>(shards.size());
+            for(PasswordJdbcRepository shard : shards){
+                transactions.add(new TransactionTemplate(new DataSourceTransactionManager(shard.getDataSource())));
+            }
+            this.transactions = List.copyOf(transactions);
+            // Writes hold their shard transaction open until every shard has written, so the pool must not be
+            // bounded or concurrent batches could wait on each other's queued tasks
+            AtomicInteger threads = new AtomicInteger();
+            this.executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "password-shard-worker-" + threads.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.transactions = List.of();
+            this.executor = null;
+        }
+    }
+
+    public int shardCount(){
+        return shards.size();
+    }
+
+    public int shardOf(String password){
+        // String.hashCode is fixed by the language spec, so rows keep their shard across restarts and versions;
+        // the finalizer from MurmurHash3 spreads its low-entropy bits before taking the modulus
+        int hash = password.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shards.size());
+    }
+
+    @Override
+    public List<Password> findByDigestAndPassword(byte[] digest, String password){
+        return shards.get(shardOf(password)).findByDigestAndPassword(digest, password);
+    }
+
+    @Override
+    public List<Password> findAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords){
+        List<Password> found = new ArrayList<>();
+        onShards(digests, passwords, PasswordJdbcRepository::findAllByDigestsAndPasswords).forEach(found::addAll);
+        return found;
+    }
+
+    @Override
+    public Set<String> findExistingPasswords(List<byte[]> digests, List<String> passwords){
+        Set<String> existing = new HashSet<>();
+        onShards(digests, passwords, PasswordJdbcRepository::findExistingPasswords).forEach(existing::addAll);
+        return existing;
+    }
+
+    @Override
+    public void upsertAll(Collection<Password> passwords){
+        onShards(passwords, PasswordJdbcRepository::upsertAll);
+    }
+
+    @Override
+    public void insertAll(Collection<Password> passwords){
+        onShards(passwords, PasswordJdbcRepository::insertAll);
+    }
+
+    @Override
+    public Password deleteByDigestAndPassword(byte[] digest, String password){
+        return shards.get(shardOf(password)).deleteByDigestAndPassword(digest, password);
+    }
+
+    @Override
+    public List<String> deleteAllByDigestsAndPasswords(List<byte[]> digests, List<String> passwords){
+        List<String> removed = new ArrayList<>();
+        onShards(digests, passwords, PasswordJdbcRepository::deleteAllByDigestsAndPasswords).forEach(removed::addAll);
+        return removed;
+    }
+
+    @Override
+    public long deleteAll(String complexity, LocalDateTime createdBefore, int chunkSize){
+        long removed = 0;
+        for(long removedFromShard : onAllShards(shard -> {
+            long removedInShard = 0;
+            int removedInChunk;
+            do {
+                removedInChunk = shard.deleteChunk(complexity, createdBefore, chunkSize);
+                removedInShard += removedInChunk;
+            } while(removedInChunk == chunkSize);
+            return removedInShard;
+        })){
+            removed += removedFromShard;
+        }
+        return removed;
+    }
+
+    @Override
+    public long count(){
+        long count = 0;
+        for(long shardCount : onAllShards(PasswordJdbcRepository::count)){
+            count += shardCount;
+        }
+        return count;
+    }
+
+    @Override
+    public void forEachPassword(Consumer<String> action){
+        for(PasswordJdbcRepository shard : shards){
+            shard.forEachPassword(action);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if(executor != null){
+            executor.shutdown();
+        }
+        for(AutoCloseable resource : resources){
+            resource.close();
+        }
+    }
+
+    private <T> List<T> onShards(List<byte[]> digests, List<String> passwords, ShardQuery<T> query){
+        if(shards.size() == 1){
+            return List.of(query.apply(shards.get(0), digests, passwords));
+        }
+        List<List<byte[]>> digestsByShard = emptyLists();
+        List<List<String>> passwordsByShard = emptyLists();
+        for(int i = 0; i < passwords.size(); i++){
+            int shard = shardOf(passwords.get(i));
+            digestsByShard.get(shard).add(digests.get(i));
+            passwordsByShard.get(shard).add(passwords.get(i));
+        }
+        List<Callable<T>> tasks = new ArrayList<>();
+        for(int shard = 0; shard < shards.size(); shard++){
+            if(!passwordsByShard.get(shard).isEmpty()){
+                PasswordJdbcRepository repository = shards.get(shard);
+                List<byte[]> shardDigests = digestsByShard.get(shard);
+                List<String> shardPasswords = passwordsByShard.get(shard);
+                tasks.add(() -> query.apply(repository, shardDigests, shardPasswords));
+            }
+        }
+        return invokeAll(tasks);
+    }
+
+    private void onShards(Collection<Password> passwords, BiConsumer<PasswordJdbcRepository, List<Password>> operation){
+        if(shards.size() == 1){
+            if(!passwords.isEmpty()){
+                operation.accept(shards.get(0), List.copyOf(passwords));
+            }
+            return;
+        }
+        List<List<Password>> passwordsByShard = emptyLists();
+        for(Password password : passwords){
+            passwordsByShard.get(shardOf(password.getPassword())).add(password);
+        }
+        List<Integer> targets = new ArrayList<>();
+        for(int shard = 0; shard < shards.size(); shard++){
+            if(!passwordsByShard.get(shard).isEmpty()){
+                targets.add(shard);
+            }
+        }
+        // Every shard writes in its own transaction and only commits once all of them have written, so a failure
+        // on one shard rolls back the others instead of leaving part of the batch behind
+        CountDownLatch written = new CountDownLatch(targets.size());
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Callable<Void>> tasks = new ArrayList<>(targets.size());
+        for(int shard : targets){
+            PasswordJdbcRepository repository = shards.get(shard);
+            TransactionOperations transaction = transactions.get(shard);
+            List<Password> shardPasswords = passwordsByShard.get(shard);
+            tasks.add(() -> {
+                transaction.executeWithoutResult(status -> {
+                    try {
+                        operation.accept(repository, shardPasswords);
+                    } catch (RuntimeException exception) {
+                        failed.set(true);
+                        throw exception;
+                    } finally {
+                        written.countDown();
+                    }
+                    try {
+                        written.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        failed.set(true);
+                    }
+                    if(failed.get()){
+                        status.setRollbackOnly();
+                    }
+                });
+                return null;
+            });
+        }
+        invokeAll(tasks);
+        if(failed.get()){
+            throw new IllegalStateException("Shard write was rolled back because another shard failed");
+        }
+    }
+
+    private <T> List<T> onAllShards(Function<PasswordJdbcRepository, T> operation){
+        List<Callable<T>> tasks = new ArrayList<>(shards.size());
+        for(PasswordJdbcRepository shard : shards){
+            tasks.add(() -> operation.apply(shard));
+        }
+        return invokeAll(tasks);
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks){
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if(tasks.size() == 1 || executor == null){
+                for(Callable<T> task : tasks){
+                    results.add(task.call());
+                }
+                return results;
+            }
+            for(Future<T> future : executor.invokeAll(tasks)){
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException exception) {
+            if(exception.getCause() instanceof RuntimeException runtimeException){
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Shard operation failed", exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", exception);
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IllegalStateException("Shard operation failed", exception);
+        }
+    }
+
+    private <T> List<List<T>> emptyLists(){
+        List<List<T>> lists = new ArrayList<>(shards.size());
+        for(int i = 0; i < shards.size(); i++){
+            lists.add(new ArrayList<>());
+        }
+        return lists;
+    }
+
+    @FunctionalInterface
+    private interface ShardQuery<T> {
+        T apply(PasswordJdbcRepository shard, List<byte[]> digests, List<String> passwords);
+    }
+}
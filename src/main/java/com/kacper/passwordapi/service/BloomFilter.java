@@ -0,0 +1,82 @@
+package com.kacper.passwordapi.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+class BloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    private final long[] words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final LongAdder insertions = new LongAdder();
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate, long maxBytes) {
+        long expected = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long maxBits = Math.min(maxBytes, (long) MAX_WORDS * Long.BYTES) * Byte.SIZE;
+        long bits = Math.max(Long.SIZE, Math.min(optimalBits, maxBits));
+        this.words = new long[(int) ((bits + Long.SIZE - 1) / Long.SIZE)];
+        this.bitSize = (long) words.length * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expected * Math.log(2)));
+    }
+
+    void put(CharSequence value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for(int i = 0; i < hashFunctions; i++){
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = (long) WORDS.getAcquire(words, word);
+            } while((current & mask) == 0 && !WORDS.weakCompareAndSetRelease(words, word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(CharSequence value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for(int i = 0; i < hashFunctions; i++){
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+            if(((long) WORDS.getAcquire(words, (int) (bit >>> 6)) & (1L << bit)) == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long memoryBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    long insertions() {
+        return insertions.sum();
+    }
+
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) insertions.sum() / bitSize), hashFunctions);
+    }
+
+    private static long hash(CharSequence value) {
+        long hash = 0xCBF29CE484222325L;
+        for(int i = 0; i < value.length(); i++){
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,120 @@
+package com.kacper.passwordapi.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+final class DictionaryTrie {
+
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    private final int dictionaries;
+    private final int[] firstEdges;
+    private final char[] labels;
+    private final int[] targets;
+    // Rank of every node's word in every dictionary, node by node; 0 where the dictionary does not hold it
+    private final int[] ranks;
+
+    private DictionaryTrie(int dictionaries, int[] firstEdges, char[] labels, int[] targets, int[] ranks){
+        this.dictionaries = dictionaries;
+        this.firstEdges = firstEdges;
+        this.labels = labels;
+        this.targets = targets;
+        this.ranks = ranks;
+    }
+
+    int child(int node, char label){
+        int low = firstEdges[node];
+        int high = firstEdges[node + 1] - 1;
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            char middleLabel = labels[middle];
+            if(middleLabel < label){
+                low = middle + 1;
+            } else if(middleLabel > label){
+                high = middle - 1;
+            } else {
+                return targets[middle];
+            }
+        }
+        return NONE;
+    }
+
+    int dictionaries(){
+        return dictionaries;
+    }
+
+    int rank(int node, int dictionary){
+        return ranks[node * dictionaries + dictionary];
+    }
+
+    int nodes(){
+        return firstEdges.length - 1;
+    }
+
+    static final class Builder {
+
+        private final int dictionaries;
+        private final Map<String, int[]> ranks = new HashMap<>();
+
+        Builder(int dictionaries){
+            this.dictionaries = dictionaries;
+        }
+
+        Builder add(int dictionary, String word, int rank){
+            int[] wordRanks = ranks.computeIfAbsent(word, key -> new int[dictionaries]);
+            if(wordRanks[dictionary] == 0 || rank < wordRanks[dictionary]){
+                wordRanks[dictionary] = rank;
+            }
+            return this;
+        }
+
+        DictionaryTrie build(){
+            Node root = new Node();
+            int edges = 0;
+            for(Map.Entry<String, int[]> entry : ranks.entrySet()){
+                Node node = root;
+                for(int i = 0; i < entry.getKey().length(); i++){
+                    Node child = node.children.get(entry.getKey().charAt(i));
+                    if(child == null){
+                        child = new Node();
+                        node.children.put(entry.getKey().charAt(i), child);
+                        edges++;
+                    }
+                    node = child;
+                }
+                node.ranks = entry.getValue();
+            }
+            List<Node> nodes = new ArrayList<>(edges + 1);
+            nodes.add(root);
+            int[] firstEdges = new int[edges + 2];
+            char[] labels = new char[edges];
+            int[] targets = new int[edges];
+            int[] ranks = new int[(edges + 1) * dictionaries];
+            int edge = 0;
+            for(int i = 0; i < nodes.size(); i++){
+                Node node = nodes.get(i);
+                firstEdges[i] = edge;
+                if(node.ranks != null){
+                    System.arraycopy(node.ranks, 0, ranks, i * dictionaries, dictionaries);
+                }
+                for(Map.Entry<Character, Node> child : node.children.entrySet()){
+                    labels[edge] = child.getKey();
+                    targets[edge] = nodes.size();
+                    nodes.add(child.getValue());
+                    edge++;
+                }
+            }
+            firstEdges[nodes.size()] = edge;
+            return new DictionaryTrie(dictionaries, firstEdges, labels, targets, ranks);
+        }
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private int[] ranks;
+    }
+}
@@ -0,0 +1,88 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public final class GeneratedPasswordBatch {
+
+    private final String[] passwords;
+    private final PasswordComplexity[] complexities;
+    private final byte[][] digests;
+    private final BitSet alreadyExisting;
+    private final BitSet breached;
+
+    GeneratedPasswordBatch(int size){
+        this.passwords = new String[size];
+        this.complexities = new PasswordComplexity[size];
+        this.digests = new byte[size][];
+        this.alreadyExisting = new BitSet(size);
+        this.breached = new BitSet(size);
+    }
+
+    public int size(){
+        return passwords.length;
+    }
+
+    public String getPassword(int index){
+        return passwords[index];
+    }
+
+    public PasswordComplexity getComplexity(int index){
+        return complexities[index];
+    }
+
+    public byte[] getDigest(int index){
+        return digests[index];
+    }
+
+    public boolean isAlreadyExisting(int index){
+        return alreadyExisting.get(index);
+    }
+
+    public boolean isBreached(int index){
+        return breached.get(index);
+    }
+
+    public List<String> getPasswords(){
+        return Arrays.asList(passwords);
+    }
+
+    public List<GeneratedPasswordDto> toGeneratedPasswordDtos(){
+        List<GeneratedPasswordDto> generatedPasswordDtos = new ArrayList<>(size());
+        for(int i = 0; i < size(); i++){
+            GeneratedPasswordDto generatedPasswordDto = new GeneratedPasswordDto(passwords[i], complexities[i].toString());
+            if(alreadyExisting.get(i)){
+                generatedPasswordDto.setPasswordAlreadyExists(true);
+            }
+            if(breached.get(i)){
+                generatedPasswordDto.setBreached(true);
+            }
+            generatedPasswordDtos.add(generatedPasswordDto);
+        }
+        return generatedPasswordDtos;
+    }
+
+    void set(int index, String password, PasswordComplexity complexity, byte[] digest){
+        passwords[index] = password;
+        complexities[index] = complexity;
+        digests[index] = digest;
+    }
+
+    void markAlreadyExisting(int index){
+        alreadyExisting.set(index);
+    }
+
+    void markBreached(int index){
+        breached.set(index);
+    }
+
+    void replace(int index, GeneratedPasswordBatch replacements, int replacementIndex){
+        set(index, replacements.passwords[replacementIndex], replacements.complexities[replacementIndex], replacements.digests[replacementIndex]);
+        alreadyExisting.clear(index);
+    }
+}
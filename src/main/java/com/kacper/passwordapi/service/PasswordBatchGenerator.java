@@ -0,0 +1,100 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.GenerationProperties;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class PasswordBatchGenerator {
+
+    private static final int TASK_SIZE = 64;
+
+    private final PasswordGenerationEngine passwordGenerationEngine;
+    private final PasswordDigester passwordDigester;
+    private final GenerationProperties properties;
+    private final PasswordMetrics passwordMetrics;
+    private final PasswordPool passwordPool;
+    private final ForkJoinPool pool;
+
+    public PasswordBatchGenerator(PasswordGenerationEngine passwordGenerationEngine, PasswordDigester passwordDigester, GenerationProperties properties, PasswordMetrics passwordMetrics, PasswordPool passwordPool){
+        this.passwordGenerationEngine = passwordGenerationEngine;
+        this.passwordDigester = passwordDigester;
+        this.properties = properties;
+        this.passwordMetrics = passwordMetrics;
+        this.passwordPool = passwordPool;
+        this.pool = properties.getParallelism() > 1 ? new ForkJoinPool(properties.getParallelism()) : null;
+    }
+
+    public GeneratedPasswordBatch generate(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, int numberOfPasswords){
+        GeneratedPasswordBatch batch = new GeneratedPasswordBatch(numberOfPasswords);
+        int pooled = passwordPool.drain(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, batch);
+        if(pooled == numberOfPasswords){
+            return batch;
+        }
+        PasswordGenerationPlan plan = passwordGenerationEngine.plan(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence);
+        LongAdder classificationNanos = new LongAdder();
+        if(numberOfPasswords - pooled < properties.getParallelThreshold() || pool == null){
+            generate(plan, batch, pooled, numberOfPasswords, classificationNanos);
+        } else {
+            pool.invoke(new GenerationTask(plan, batch, pooled, numberOfPasswords, classificationNanos));
+        }
+        // One sample per batch, summed over every task that classified part of it
+        passwordMetrics.record(PasswordMetrics.Stage.CLASSIFICATION, classificationNanos.sum());
+        return batch;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        if(pool != null){
+            pool.shutdown();
+        }
+    }
+
+    private void generate(PasswordGenerationPlan plan, GeneratedPasswordBatch batch, int from, int to, LongAdder classificationNanos){
+        String[] passwords = new String[to - from];
+        for(int i = 0; i < passwords.length; i++){
+            passwords[i] = passwordGenerationEngine.generate(plan);
+        }
+        PasswordComplexity[] complexities = new PasswordComplexity[passwords.length];
+        long start = System.nanoTime();
+        for(int i = 0; i < passwords.length; i++){
+            complexities[i] = PasswordComplexityClassifier.classify(passwords[i]);
+        }
+        classificationNanos.add(System.nanoTime() - start);
+        for(int i = 0; i < passwords.length; i++){
+            batch.set(from + i, passwords[i], complexities[i], passwordDigester.digest(passwords[i]));
+        }
+    }
+
+    private class GenerationTask extends RecursiveAction {
+
+        private final PasswordGenerationPlan plan;
+        private final GeneratedPasswordBatch batch;
+        private final int from;
+        private final int to;
+        private final LongAdder classificationNanos;
+
+        private GenerationTask(PasswordGenerationPlan plan, GeneratedPasswordBatch batch, int from, int to, LongAdder classificationNanos){
+            this.plan = plan;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.classificationNanos = classificationNanos;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= TASK_SIZE){
+                generate(plan, batch, from, to, classificationNanos);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GenerationTask(plan, batch, from, middle, classificationNanos), new GenerationTask(plan, batch, middle, to, classificationNanos));
+            }
+        }
+    }
+}
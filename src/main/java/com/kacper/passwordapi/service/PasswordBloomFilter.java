@@ -0,0 +1,123 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.BloomFilterProperties;
+import com.kacper.passwordapi.repository.PasswordStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PasswordBloomFilter implements MeterBinder {
+
+    private final PasswordStore passwordStore;
+    private final BloomFilterProperties properties;
+
+    // Read once per operation, so an add never sees the new filter published without the one being rebuilt
+    private volatile Filters filters = new Filters(null, null);
+    private final LongAdder negativeLookups = new LongAdder();
+    private final LongAdder positiveLookups = new LongAdder();
+
+    public boolean mightContain(String password){
+        BloomFilter current = filters.current;
+        if(!properties.isEnabled() || current == null){
+            return true;
+        }
+        if(current.mightContain(password)){
+            positiveLookups.increment();
+            return true;
+        }
+        negativeLookups.increment();
+        return false;
+    }
+
+    public void putAll(Collection<String> passwords){
+        if(!properties.isEnabled()){
+            return;
+        }
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            List<String> committedPasswords = List.copyOf(passwords);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(committedPasswords);
+                }
+            });
+        } else {
+            add(passwords);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${password-api.bloom-filter.rebuild-interval:PT6H}")
+    public void rebuild(){
+        if(!properties.isEnabled()){
+            return;
+        }
+        long rows = passwordStore.count();
+        long expectedInsertions = Math.max(properties.getMinExpectedInsertions(), (long) (rows * properties.getHeadroom()));
+        BloomFilter next = new BloomFilter(expectedInsertions, properties.getFalsePositiveRate(), properties.getMaxMemory().toBytes());
+        filters = new Filters(filters.current, next);
+        boolean rebuilt = false;
+        try {
+            passwordStore.forEachPassword(next::put);
+            rebuilt = true;
+        } finally {
+            filters = rebuilt ? new Filters(next, null) : new Filters(filters.current, null);
+        }
+        log.info("Bloom filter rebuilt with {} passwords using {} bytes", next.insertions(), next.memoryBytes());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("password.bloom.filter.lookups", negativeLookups, LongAdder::sum)
+                .tag("result", "negative")
+                .register(registry);
+        FunctionCounter.builder("password.bloom.filter.lookups", positiveLookups, LongAdder::sum)
+                .tag("result", "positive")
+                .register(registry);
+        Gauge.builder("password.bloom.filter.memory", this, bloomFilter -> bloomFilter.filters.current == null ? 0 : bloomFilter.filters.current.memoryBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("password.bloom.filter.insertions", this, bloomFilter -> bloomFilter.filters.current == null ? 0 : bloomFilter.filters.current.insertions())
+                .register(registry);
+        Gauge.builder("password.bloom.filter.false.positive.rate", this, bloomFilter -> bloomFilter.filters.current == null ? 0 : bloomFilter.filters.current.expectedFalsePositiveRate())
+                .register(registry);
+        Gauge.builder("password.bloom.filter.false.positive.rate.target", properties, BloomFilterProperties::getFalsePositiveRate)
+                .register(registry);
+    }
+
+    private void add(Collection<String> passwords){
+        Filters snapshot = filters;
+        for(String password : passwords){
+            if(snapshot.current != null){
+                snapshot.current.put(password);
+            }
+            if(snapshot.rebuilding != null){
+                snapshot.rebuilding.put(password);
+            }
+        }
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter current;
+        private final BloomFilter rebuilding;
+
+        private Filters(BloomFilter current, BloomFilter rebuilding){
+            this.current = current;
+            this.rebuilding = rebuilding;
+        }
+    }
+}
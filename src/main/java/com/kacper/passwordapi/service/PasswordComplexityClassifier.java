@@ -0,0 +1,59 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.enums.PasswordComplexity;
+
+public final class PasswordComplexityClassifier {
+
+    public static final String SPECIAL_CHARACTERS = "!@#$%^&*()-_=+[]{}|?/<>,.;:'`~";
+
+    private static final int SPECIAL_CHARACTER = 1;
+    private static final int LOWER_CASE_LETTER = 1 << 1;
+    private static final int CAPITAL_CASE_LETTER = 1 << 2;
+    private static final int LINE_TERMINATOR = 1 << 3;
+    private static final int ALL_CLASSES = SPECIAL_CHARACTER | LOWER_CASE_LETTER | CAPITAL_CASE_LETTER;
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for(char character : SPECIAL_CHARACTERS.toCharArray()){
+            ASCII_CLASSES[character] = SPECIAL_CHARACTER;
+        }
+        for(char character = 'a'; character <= 'z'; character++){
+            ASCII_CLASSES[character] = LOWER_CASE_LETTER;
+        }
+        for(char character = 'A'; character <= 'Z'; character++){
+            ASCII_CLASSES[character] = CAPITAL_CASE_LETTER;
+        }
+        ASCII_CLASSES['\n'] = LINE_TERMINATOR;
+        ASCII_CLASSES['\r'] = LINE_TERMINATOR;
+    }
+
+    private PasswordComplexityClassifier(){
+    }
+
+    public static PasswordComplexity classify(CharSequence password){
+        int length = password.length();
+        int classes = 0;
+        for(int i = 0; i < length; i++){
+            char character = password.charAt(i);
+            if(character < 128){
+                classes |= ASCII_CLASSES[character];
+            } else if(character == '\u0085' || character == '\u2028' || character == '\u2029'){
+                classes |= LINE_TERMINATOR;
+            }
+        }
+        // the regex classifier this replaces used ".*[...].*", which never matches across a line terminator
+        if((classes & LINE_TERMINATOR) != 0){
+            classes = 0;
+        }
+        boolean allClassesPresent = (classes & ALL_CLASSES) == ALL_CLASSES;
+        if(length > 16 && allClassesPresent){
+            return PasswordComplexity.VERY_STRONG;
+        } else if(length > 8 && allClassesPresent){
+            return PasswordComplexity.STRONG;
+        } else if(length > 5 && (classes & SPECIAL_CHARACTER) == 0){
+            return PasswordComplexity.MEDIUM;
+        } else {
+            return PasswordComplexity.WEAK;
+        }
+    }
+}
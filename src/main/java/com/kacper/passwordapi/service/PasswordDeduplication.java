@@ -0,0 +1,55 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.repository.PasswordJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "password-api.storage", name = "engine", havingValue = "jdbc", matchIfMissing = true)
+public class PasswordDeduplication {
+
+    private static final String UNIQUE_INDEX_EXISTS = """
+            select count(*) from pg_indexes where tablename = 'password' and indexname = 'password_digest_key'""";
+
+    private static final String MERGE_DUPLICATES = """
+            update password p
+            set occurrences = d.occurrences, last_seen = d.last_seen, created = d.created
+            from (select min(id) as id, sum(occurrences) as occurrences, max(coalesce(last_seen, created)) as last_seen, min(created) as created
+                  from password group by password having count(*) > 1) d
+            where p.id = d.id""";
+
+    private static final String DELETE_DUPLICATES = """
+            delete from password p using password keeper
+            where p.password = keeper.password and p.id > keeper.id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordJdbcRepository passwordJdbcRepository;
+
+    @PostConstruct
+    public void deduplicate(){
+        if(!passwordJdbcRepository.isPostgres()){
+            return;
+        }
+        Integer uniqueIndexes = jdbcTemplate.queryForObject(UNIQUE_INDEX_EXISTS, Integer.class);
+        if(uniqueIndexes == null || uniqueIndexes == 0){
+            Integer removed = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("lock table password in share row exclusive mode");
+                jdbcTemplate.update(MERGE_DUPLICATES);
+                int deleted = jdbcTemplate.update(DELETE_DUPLICATES);
+                jdbcTemplate.update("update password set last_seen = created where last_seen is null");
+                jdbcTemplate.execute("create unique index password_digest_key on password (digest)");
+                return deleted;
+            });
+            log.info("Merged {} duplicate passwords into occurrence counts", removed);
+        }
+        jdbcTemplate.execute("drop index if exists password_digest_idx");
+    }
+}
@@ -0,0 +1,74 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.DigestProperties;
+import com.kacper.passwordapi.entity.Password;
+import com.kacper.passwordapi.repository.PasswordJdbcRepository;
+import com.kacper.passwordapi.repository.PasswordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "password-api.storage", name = "engine", havingValue = "jdbc", matchIfMissing = true)
+public class PasswordDigestBackfill {
+
+    private final PasswordRepository passwordRepository;
+    private final PasswordJdbcRepository passwordJdbcRepository;
+    private final PasswordDigester passwordDigester;
+    private final DigestProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${password-api.digest.backfill-interval:PT1M}")
+    public void backfill(){
+        long backfilled = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> backfillChunk());
+            backfilled += chunk;
+        } while(chunk == properties.getBackfillChunkSize());
+        if(backfilled > 0){
+            log.info("Backfilled digests of {} passwords", backfilled);
+        }
+        if(!passwordJdbcRepository.isDigestsBackfilled()){
+            passwordJdbcRepository.markDigestsBackfilled();
+            log.info("Digest backfill complete, lookups no longer match rows without a digest");
+        }
+    }
+
+    private int backfillChunk(){
+        List<Password> passwords = passwordRepository.findByDigestIsNull(PageRequest.of(0, properties.getBackfillChunkSize()));
+        List<byte[]> digests = new ArrayList<>(passwords.size());
+        for(Password password : passwords){
+            digests.add(passwordDigester.digest(password.getPassword()));
+        }
+        Map<ByteBuffer, Password> passwordsByDigest = new HashMap<>();
+        if(!digests.isEmpty()){
+            for(Password password : passwordRepository.findByDigestIn(digests)){
+                passwordsByDigest.put(ByteBuffer.wrap(password.getDigest()), password);
+            }
+        }
+        for(int i = 0; i < passwords.size(); i++){
+            Password password = passwords.get(i);
+            Password stored = passwordsByDigest.putIfAbsent(ByteBuffer.wrap(digests.get(i)), password);
+            if(stored == null){
+                password.setDigest(digests.get(i));
+            } else {
+                stored.merge(password);
+                passwordRepository.delete(password);
+            }
+        }
+        return passwords.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.DigestProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+@Component
+public class PasswordDigester {
+
+    public static final int DIGEST_LENGTH = 16;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+
+    public PasswordDigester(DigestProperties properties){
+        if(properties.getKey() == null || properties.getKey().isBlank()){
+            throw new IllegalStateException("password-api.digest.key must be set");
+        }
+        SecretKeySpec key = new SecretKeySpec(properties.getKey().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+    }
+
+    public byte[] digest(String password){
+        return Arrays.copyOf(macs.get().doFinal(password.getBytes(StandardCharsets.UTF_8)), DIGEST_LENGTH);
+    }
+}
@@ -0,0 +1,50 @@
+package com.kacper.passwordapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class PasswordGenerationEngine {
+
+    private static final char[] LOWER_CASE_LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final char[] CAPITAL_CASE_LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] SPECIAL_CHARACTERS = PasswordComplexityClassifier.SPECIAL_CHARACTERS.toCharArray();
+
+    private final ConcurrentMap<Integer, PasswordGenerationPlan> plans = new ConcurrentHashMap<>();
+    private final ThreadLocal<SecureRandom> randoms = ThreadLocal.withInitial(PasswordGenerationEngine::newRandom);
+
+    public PasswordGenerationPlan plan(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence){
+        int key = length << 3 | (specialCharactersPresence ? 4 : 0) | (lowerCasePresence ? 2 : 0) | (capitalCasePresence ? 1 : 0);
+        return plans.computeIfAbsent(key, ignored -> {
+            List<char[]> characterClasses = new ArrayList<>(3);
+            if(lowerCasePresence){
+                characterClasses.add(LOWER_CASE_LETTERS);
+            }
+            if(capitalCasePresence){
+                characterClasses.add(CAPITAL_CASE_LETTERS);
+            }
+            if(specialCharactersPresence){
+                characterClasses.add(SPECIAL_CHARACTERS);
+            }
+            return new PasswordGenerationPlan(length, characterClasses.toArray(new char[0][]));
+        });
+    }
+
+    public String generate(PasswordGenerationPlan plan){
+        return plan.generate(randoms.get());
+    }
+
+    private static SecureRandom newRandom(){
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException exception) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.kacper.passwordapi.service;
+
+import java.util.Random;
+
+public final class PasswordGenerationPlan {
+
+    private final int length;
+    private final char[] alphabet;
+    private final char[][] requiredCharacterClasses;
+
+    PasswordGenerationPlan(int length, char[][] requiredCharacterClasses){
+        if(requiredCharacterClasses.length == 0 || length < requiredCharacterClasses.length){
+            throw new IllegalArgumentException("Password length " + length + " can not hold " + requiredCharacterClasses.length + " required character classes");
+        }
+        int alphabetSize = 0;
+        for(char[] characterClass : requiredCharacterClasses){
+            alphabetSize += characterClass.length;
+        }
+        char[] alphabet = new char[alphabetSize];
+        int offset = 0;
+        for(char[] characterClass : requiredCharacterClasses){
+            System.arraycopy(characterClass, 0, alphabet, offset, characterClass.length);
+            offset += characterClass.length;
+        }
+        this.length = length;
+        this.alphabet = alphabet;
+        this.requiredCharacterClasses = requiredCharacterClasses;
+    }
+
+    public int getLength(){
+        return length;
+    }
+
+    String generate(Random random){
+        char[] password = new char[length];
+        int position = 0;
+        for(char[] characterClass : requiredCharacterClasses){
+            password[position++] = characterClass[random.nextInt(characterClass.length)];
+        }
+        while(position < length){
+            password[position++] = alphabet[random.nextInt(alphabet.length)];
+        }
+        for(int i = length - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            char character = password[i];
+            password[i] = password[j];
+            password[j] = character;
+        }
+        return new String(password);
+    }
+}
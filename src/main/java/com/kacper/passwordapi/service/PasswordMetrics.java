@@ -0,0 +1,75 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class PasswordMetrics {
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<PasswordComplexity, Counter> generatedPasswords = new EnumMap<>(PasswordComplexity.class);
+
+    public PasswordMetrics(MeterRegistry registry){
+        for(Stage stage : Stage.values()){
+            timers.put(stage, Timer.builder("password.stage")
+                    .description("Time spent in a stage of password processing")
+                    .tag("stage", stage.tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for(PasswordComplexity complexity : PasswordComplexity.values()){
+            generatedPasswords.put(complexity, Counter.builder("password.generated")
+                    .description("Generated passwords")
+                    .tag("complexity", complexity.toString())
+                    .register(registry));
+        }
+    }
+
+    public <T> T record(Stage stage, Supplier<T> supplier){
+        return timers.get(stage).record(supplier);
+    }
+
+    public void record(Stage stage, Runnable runnable){
+        timers.get(stage).record(runnable);
+    }
+
+    public void record(Stage stage, long nanos){
+        timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countGenerated(GeneratedPasswordBatch batch){
+        long[] counts = new long[PasswordComplexity.values().length];
+        for(int i = 0; i < batch.size(); i++){
+            counts[batch.getComplexity(i).ordinal()]++;
+        }
+        for(PasswordComplexity complexity : PasswordComplexity.values()){
+            if(counts[complexity.ordinal()] > 0){
+                generatedPasswords.get(complexity).increment(counts[complexity.ordinal()]);
+            }
+        }
+    }
+
+    public enum Stage {
+        GENERATION("generation"),
+        CLASSIFICATION("classification"),
+        DUPLICATE_CHECK("duplicate.check"),
+        SAVE("save"),
+        DELETE("delete"),
+        STRENGTH_ESTIMATION("strength.estimation");
+
+        private final String tag;
+
+        Stage(String tag){
+            this.tag = tag;
+        }
+    }
+}
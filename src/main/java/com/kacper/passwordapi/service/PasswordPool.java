@@ -0,0 +1,172 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.PoolProperties;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+public class PasswordPool implements MeterBinder {
+
+    private final PasswordGenerationEngine passwordGenerationEngine;
+    private final PasswordDigester passwordDigester;
+    private final PoolProperties properties;
+    private final Map<Integer, ProfilePool> pools = new HashMap<>();
+    private final List<ProfilePool> refillOrder = new ArrayList<>();
+    private volatile boolean running;
+    private Thread refiller;
+
+    public PasswordPool(PasswordGenerationEngine passwordGenerationEngine, PasswordDigester passwordDigester, PoolProperties properties){
+        this.passwordGenerationEngine = passwordGenerationEngine;
+        this.passwordDigester = passwordDigester;
+        this.properties = properties;
+        if(properties.isEnabled()){
+            for(PoolProperties.Profile profile : properties.getProfiles()){
+                ProfilePool pool = new ProfilePool(profile, passwordGenerationEngine.plan(profile.getLength(), profile.isSpecialCharacters(), profile.isLowerCase(), profile.isCapitalCase()), new PasswordRingBuffer<>(properties.getDepth()));
+                if(pools.putIfAbsent(key(profile.getLength(), profile.isSpecialCharacters(), profile.isLowerCase(), profile.isCapitalCase()), pool) == null){
+                    refillOrder.add(pool);
+                }
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start(){
+        if(refillOrder.isEmpty()){
+            return;
+        }
+        running = true;
+        refiller = new Thread(this::refill, "password-pool-refill");
+        refiller.setDaemon(true);
+        refiller.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if(refiller == null){
+            return;
+        }
+        running = false;
+        refiller.interrupt();
+        refiller.join();
+    }
+
+    public int drain(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, GeneratedPasswordBatch batch){
+        if(pools.isEmpty()){
+            return 0;
+        }
+        ProfilePool pool = pools.get(key(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence));
+        if(pool == null){
+            return 0;
+        }
+        int drained = 0;
+        while(drained < batch.size()){
+            PooledPassword pooledPassword = pool.buffer.poll();
+            if(pooledPassword == null){
+                break;
+            }
+            batch.set(drained++, pooledPassword.password, pooledPassword.complexity, pooledPassword.digest);
+        }
+        pool.hits.add(drained);
+        pool.misses.add(batch.size() - drained);
+        return drained;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for(ProfilePool pool : refillOrder){
+            Gauge.builder("password.pool.size", pool.buffer, PasswordRingBuffer::size)
+                    .tag("profile", pool.tag)
+                    .register(registry);
+            Gauge.builder("password.pool.capacity", pool.buffer, PasswordRingBuffer::capacity)
+                    .tag("profile", pool.tag)
+                    .register(registry);
+            FunctionCounter.builder("password.pool.hits", pool.hits, LongAdder::sum)
+                    .tag("profile", pool.tag)
+                    .register(registry);
+            FunctionCounter.builder("password.pool.misses", pool.misses, LongAdder::sum)
+                    .tag("profile", pool.tag)
+                    .register(registry);
+            FunctionCounter.builder("password.pool.refilled", pool.refilled, LongAdder::sum)
+                    .tag("profile", pool.tag)
+                    .register(registry);
+        }
+    }
+
+    // The refill thread is the only producer, so the engine's per-thread random source is never shared with
+    // request threads.
+    private void refill(){
+        long nanosPerPassword = properties.getRefillRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / properties.getRefillRate() : 0;
+        while(running){
+            int generated = 0;
+            for(ProfilePool pool : refillOrder){
+                generated += refill(pool);
+            }
+            if(generated == 0){
+                LockSupport.parkNanos(properties.getIdleInterval().toNanos());
+            } else if(nanosPerPassword > 0){
+                LockSupport.parkNanos(nanosPerPassword * generated);
+            }
+        }
+    }
+
+    private int refill(ProfilePool pool){
+        int generated = 0;
+        while(generated < properties.getRefillBatchSize() && pool.buffer.size() < pool.buffer.capacity()){
+            String password = passwordGenerationEngine.generate(pool.plan);
+            PooledPassword pooledPassword = new PooledPassword(password, PasswordComplexityClassifier.classify(password), passwordDigester.digest(password));
+            if(!pool.buffer.offer(pooledPassword)){
+                break;
+            }
+            generated++;
+        }
+        pool.refilled.add(generated);
+        return generated;
+    }
+
+    private static int key(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence){
+        return length << 3 | (specialCharactersPresence ? 4 : 0) | (lowerCasePresence ? 2 : 0) | (capitalCasePresence ? 1 : 0);
+    }
+
+    private static final class ProfilePool {
+
+        private final PasswordGenerationPlan plan;
+        private final PasswordRingBuffer<PooledPassword> buffer;
+        private final String tag;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder refilled = new LongAdder();
+
+        private ProfilePool(PoolProperties.Profile profile, PasswordGenerationPlan plan, PasswordRingBuffer<PooledPassword> buffer){
+            this.plan = plan;
+            this.buffer = buffer;
+            this.tag = profile.getLength() + (profile.isSpecialCharacters() ? "s" : "") + (profile.isLowerCase() ? "l" : "") + (profile.isCapitalCase() ? "c" : "");
+        }
+    }
+
+    private static final class PooledPassword {
+
+        private final String password;
+        private final PasswordComplexity complexity;
+        private final byte[] digest;
+
+        private PooledPassword(String password, PasswordComplexity complexity, byte[] digest){
+            this.password = password;
+            this.complexity = complexity;
+            this.digest = digest;
+        }
+    }
+}
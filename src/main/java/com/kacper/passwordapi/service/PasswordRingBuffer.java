@@ -0,0 +1,81 @@
+package com.kacper.passwordapi.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded multi-producer multi-consumer queue after Dmitry Vyukov's design: every slot carries a sequence number
+// that tells producers and consumers whether it is free or filled for their lap, so both sides only CAS their own
+// counter and never block each other.
+final class PasswordRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    PasswordRingBuffer(int requestedCapacity){
+        if(requestedCapacity < 2 || requestedCapacity > 1 << 30){
+            throw new IllegalArgumentException("Ring buffer capacity must be between 2 and 2^30");
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for(int i = 0; i < capacity; i++){
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element){
+        long position = enqueuePosition.get();
+        while(true){
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if(difference == 0){
+                if(enqueuePosition.compareAndSet(position, position + 1)){
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if(difference < 0){
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    E poll(){
+        long position = dequeuePosition.get();
+        while(true){
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if(difference == 0){
+                if(dequeuePosition.compareAndSet(position, position + 1)){
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.set(index, position + capacity);
+                    return element;
+                }
+                position = dequeuePosition.get();
+            } else if(difference < 0){
+                return null;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    int size(){
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    int capacity(){
+        return capacity;
+    }
+}
@@ -0,0 +1,26 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.repository.PasswordJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "password-api.storage", name = "engine", havingValue = "jdbc", matchIfMissing = true)
+public class PasswordSequenceAlignment {
+
+    private final PasswordJdbcRepository passwordJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void align(){
+        if(Boolean.TRUE.equals(transactionTemplate.execute(status -> passwordJdbcRepository.alignIdSequence()))){
+            log.info("Moved password_seq past the ids of existing passwords");
+        }
+    }
+}
@@ -2,111 +2,315 @@ package com.kacper.passwordapi.service;
 
 import com.kacper.passwordapi.dto.GeneratedPasswordDto;
 import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.dto.RemovedPasswordsDto;
 import com.kacper.passwordapi.entity.Password;
 import com.kacper.passwordapi.enums.PasswordComplexity;
 import com.kacper.passwordapi.exception.NotFoundException;
+import com.kacper.passwordapi.config.GenerationProperties;
+import com.kacper.passwordapi.config.RemovalProperties;
+import com.kacper.passwordapi.config.VerificationProperties;
 import com.kacper.passwordapi.exception.UnacceptableValuesOfParametersException;
-import com.kacper.passwordapi.repository.PasswordRepository;
-import jakarta.transaction.Transactional;
+import com.kacper.passwordapi.exception.UniquePasswordsUnavailableException;
+import com.kacper.passwordapi.repository.BreachedPasswordCorpus;
+import com.kacper.passwordapi.repository.PasswordStore;
 import lombok.RequiredArgsConstructor;
-import org.passay.CharacterData;
-import org.passay.CharacterRule;
-import org.passay.EnglishCharacterData;
-import org.passay.PasswordGenerator;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Service
 public class PasswordService {
 
-    private final PasswordRepository passwordRepository;
+    private static final int EXISTENCE_CHECK_CHUNK_SIZE = 500;
+    private static final int MIN_PASSWORD_LENGTH = 3;
+    private static final int MAX_PASSWORD_LENGTH = 32;
+
+    private final PasswordStore passwordStore;
+    private final PasswordBloomFilter passwordBloomFilter;
+    private final PasswordDigester passwordDigester;
+    private final PasswordBatchGenerator passwordBatchGenerator;
+    private final PasswordWriteBehindQueue passwordWriteBehindQueue;
+    private final BreachedPasswordCorpus breachedPasswordCorpus;
+    private final PasswordVerificationCache passwordVerificationCache;
+    private final PasswordMetrics passwordMetrics;
+    private final PasswordStrengthEstimator passwordStrengthEstimator;
+    private final GenerationProperties generationProperties;
+    private final RemovalProperties removalProperties;
+    private final VerificationProperties verificationProperties;
+    private final TransactionOperations transactionOperations;
 
-    @Transactional
     public List<GeneratedPasswordDto> createPassword(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, int numberOfPasswords){
+        return createPasswordBatch(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, numberOfPasswords).toGeneratedPasswordDtos();
+    }
+
+    public GeneratedPasswordBatch createPasswordBatch(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, int numberOfPasswords){
+        checkCharacterClasses(specialCharactersPresence, lowerCasePresence, capitalCasePresence);
+        if(passwordWriteBehindQueue.isEnabled()){
+            // queued outside any transaction, a request waiting for queue space must not hold the connection the writer needs
+            GeneratedPasswordBatch batch = generate(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, numberOfPasswords);
+            passwordMetrics.record(PasswordMetrics.Stage.DUPLICATE_CHECK, () -> markExistingPasswords(batch));
+            storePasswords(batch, true, false);
+            return batch;
+        }
+        return transactionOperations.execute(status -> {
+            GeneratedPasswordBatch batch = generate(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, numberOfPasswords);
+            passwordMetrics.record(PasswordMetrics.Stage.DUPLICATE_CHECK, () -> markExistingPasswords(batch));
+            storePasswords(batch, false, false);
+            return batch;
+        });
+    }
+
+    public List<GeneratedPasswordDto> createUniquePassword(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, int numberOfPasswords){
+        return createUniquePasswordBatch(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, numberOfPasswords).toGeneratedPasswordDtos();
+    }
+
+    public GeneratedPasswordBatch createUniquePasswordBatch(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, int numberOfPasswords){
+        checkCharacterClasses(specialCharactersPresence, lowerCasePresence, capitalCasePresence);
+        for(int attempt = 1; ; attempt++){
+            try{
+                return transactionOperations.execute(status -> {
+                    GeneratedPasswordBatch batch = generate(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, numberOfPasswords);
+                    passwordMetrics.record(PasswordMetrics.Stage.DUPLICATE_CHECK, () -> replaceExistingPasswords(batch, length, specialCharactersPresence, lowerCasePresence, capitalCasePresence));
+                    storePasswords(batch, false, true);
+                    return batch;
+                });
+            } catch(DuplicateKeyException exception){
+                if(attempt >= generationProperties.getUniqueMaxAttempts()){
+                    throw exception;
+                }
+            }
+        }
+    }
+
+    public void checkCharacterClasses(boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence){
         if(!specialCharactersPresence && !lowerCasePresence && !capitalCasePresence){
             throw new UnacceptableValuesOfParametersException();
         }
-        List<GeneratedPasswordDto> generatedPasswordDtos = new ArrayList<>();
-        for(int i = 0; i < numberOfPasswords; i++){
-            String password = generatePassword(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence);
-            PasswordComplexity complexity = definePasswordComplexity(password);
-            GeneratedPasswordDto generatedPasswordDto = new GeneratedPasswordDto(password, complexity.toString());
-            if(passwordRepository.findFirstByPassword(password) != null){
-                generatedPasswordDto.setPasswordAlreadyExists(true);
+    }
+
+    public void checkPasswordToVerify(long position, String password){
+        if(position >= verificationProperties.getMaxPasswords()){
+            throw new UnacceptableValuesOfParametersException("Number of verified passwords can not be higher than " + verificationProperties.getMaxPasswords());
+        }
+        if(password == null){
+            throw new UnacceptableValuesOfParametersException("Password at position " + position + " must be a string");
+        }
+        if(password.length() < MIN_PASSWORD_LENGTH || password.length() > MAX_PASSWORD_LENGTH){
+            throw new UnacceptableValuesOfParametersException("Password length at position " + position + " must be between " + MIN_PASSWORD_LENGTH + " and " + MAX_PASSWORD_LENGTH);
+        }
+    }
+
+    private GeneratedPasswordBatch generate(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, int numberOfPasswords){
+        GeneratedPasswordBatch batch = passwordMetrics.record(PasswordMetrics.Stage.GENERATION, () -> passwordBatchGenerator.generate(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, numberOfPasswords));
+        passwordMetrics.countGenerated(batch);
+        return batch;
+    }
+
+    private void storePasswords(GeneratedPasswordBatch batch, boolean writeBehind, boolean unique){
+        LocalDateTime created = LocalDateTime.now();
+        List<Password> passwords = new ArrayList<>(batch.size());
+        for(int i = 0; i < batch.size(); i++){
+            Password password = new Password(batch.getPassword(i), batch.getComplexity(i).toString(), created);
+            password.setDigest(batch.getDigest(i));
+            passwords.add(password);
+            if(breachedPasswordCorpus.isCheckingGenerated() && breachedPasswordCorpus.contains(batch.getPassword(i))){
+                batch.markBreached(i);
             }
-            generatedPasswordDtos.add(generatedPasswordDto);
-            passwordRepository.save(new Password(password, complexity.toString(), LocalDateTime.now()));
         }
-        return generatedPasswordDtos;
+        passwordVerificationCache.invalidate(batch.getPasswords());
+        if(writeBehind){
+            passwordWriteBehindQueue.enqueue(passwords);
+        } else {
+            passwordMetrics.record(PasswordMetrics.Stage.SAVE, () -> {
+                if(unique){
+                    passwordStore.insertAll(passwords);
+                } else {
+                    passwordStore.upsertAll(passwords);
+                }
+            });
+            passwordBloomFilter.putAll(batch.getPasswords());
+        }
     }
 
     public PasswordDto verifyPassword(String password){
-        Password passwordFromDatabase = passwordRepository.findFirstByPassword(password);
-        if(passwordFromDatabase != null){
-            return new PasswordDto(passwordFromDatabase.getPassword(), passwordFromDatabase.getComplexity(), passwordFromDatabase.getCreated());
-        } else {
-            PasswordComplexity complexity = definePasswordComplexity(password);
-            return new PasswordDto(password, complexity.toString(), null);
+        return passwordVerificationCache.get(password, verifiedPassword -> toPasswordDto(verifiedPassword, findPassword(verifiedPassword)));
+    }
+
+    public List<PasswordDto> verifyPasswords(List<String> passwords){
+        Map<String, Password> passwordsFromDatabase = new HashMap<>();
+        List<String> candidates = new ArrayList<>();
+        for(String password : passwords){
+            Password pendingPassword = passwordWriteBehindQueue.findPending(password);
+            if(pendingPassword != null){
+                passwordsFromDatabase.put(password, pendingPassword);
+            } else if(passwordBloomFilter.mightContain(password)){
+                candidates.add(password);
+            }
         }
+        for(int from = 0; from < candidates.size(); from += EXISTENCE_CHECK_CHUNK_SIZE){
+            List<String> chunk = candidates.subList(from, Math.min(from + EXISTENCE_CHECK_CHUNK_SIZE, candidates.size()));
+            List<byte[]> digests = chunk.stream().map(passwordDigester::digest).toList();
+            for(Password passwordFromDatabase : passwordStore.findAllByDigestsAndPasswords(digests, chunk)){
+                passwordsFromDatabase.putIfAbsent(passwordFromDatabase.getPassword(), passwordFromDatabase);
+            }
+        }
+        List<PasswordDto> passwordDtos = new ArrayList<>(passwords.size());
+        for(String password : passwords){
+            passwordDtos.add(toPasswordDto(password, passwordsFromDatabase.get(password)));
+        }
+        return passwordDtos;
     }
 
-    @Transactional
     public PasswordDto removePassword(String password){
-        Password passwordFromDatabase = passwordRepository.findFirstByPassword(password);
-        if(passwordFromDatabase != null){
-            PasswordDto passwordDto = new PasswordDto(passwordFromDatabase.getPassword(), passwordFromDatabase.getComplexity(), null);
-            passwordRepository.deleteByPassword(password);
-            return passwordDto;
-        } else {
+        if(passwordWriteBehindQueue.findPending(password) != null){
+            passwordWriteBehindQueue.awaitFlushed(password);
+        }
+        if(!passwordBloomFilter.mightContain(password)){
+            throw new NotFoundException();
+        }
+        Password removedPassword = passwordMetrics.record(PasswordMetrics.Stage.DELETE, () -> passwordStore.deleteByDigestAndPassword(passwordDigester.digest(password), password));
+        if(removedPassword == null){
             throw new NotFoundException();
         }
+        passwordVerificationCache.invalidate(List.of(password));
+        return new PasswordDto(removedPassword.getPassword(), removedPassword.getComplexity(), null);
     }
 
-    private String generatePassword(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence){
+    public RemovedPasswordsDto removePasswords(List<String> passwords){
+        if(passwords == null || passwords.isEmpty()){
+            throw new UnacceptableValuesOfParametersException("At least one password must be given");
+        }
+        if(passwords.size() > removalProperties.getMaxPasswords()){
+            throw new UnacceptableValuesOfParametersException("Number of removed passwords can not be higher than " + removalProperties.getMaxPasswords());
+        }
+        List<String> distinctPasswords = new ArrayList<>(new LinkedHashSet<>(passwords));
+        for(String password : passwordWriteBehindQueue.findPending(distinctPasswords)){
+            passwordWriteBehindQueue.awaitFlushed(password);
+        }
+        long removed = 0;
+        for(int from = 0; from < distinctPasswords.size(); from += removalProperties.getChunkSize()){
+            List<String> chunk = distinctPasswords.subList(from, Math.min(from + removalProperties.getChunkSize(), distinctPasswords.size()));
+            List<byte[]> digests = chunk.stream().map(passwordDigester::digest).toList();
+            List<String> removedPasswords = passwordMetrics.record(PasswordMetrics.Stage.DELETE, () -> passwordStore.deleteAllByDigestsAndPasswords(digests, chunk));
+            passwordVerificationCache.invalidate(chunk);
+            removed += removedPasswords.size();
+        }
+        return new RemovedPasswordsDto(removed);
+    }
 
-        List<CharacterRule> rules = new ArrayList<>();
-        if(lowerCasePresence){
-            rules.add(new CharacterRule(EnglishCharacterData.LowerCase, 1));
+    public RemovedPasswordsDto removePasswords(PasswordComplexity complexity, LocalDateTime createdBefore){
+        if(complexity == null && createdBefore == null){
+            throw new UnacceptableValuesOfParametersException("Complexity or creation date must be given");
         }
-        if(capitalCasePresence){
-            rules.add(new CharacterRule(EnglishCharacterData.UpperCase, 1));
+        String complexityName = complexity == null ? null : complexity.toString();
+        long removed = passwordMetrics.record(PasswordMetrics.Stage.DELETE, () -> passwordStore.deleteAll(complexityName, createdBefore, removalProperties.getChunkSize()));
+        if(removed > 0){
+            passwordVerificationCache.invalidateAll();
         }
-        if(specialCharactersPresence){
-            rules.add(new CharacterRule(new CharacterData() {
-                @Override
-                public String getErrorCode() {
-                    return "ERR_SPACE";
-                }
+        return new RemovedPasswordsDto(removed);
+    }
+
+    private PasswordDto toPasswordDto(String password, Password passwordFromDatabase){
+        PasswordDto passwordDto;
+        if(passwordFromDatabase != null){
+            passwordDto = new PasswordDto(passwordFromDatabase.getPassword(), passwordFromDatabase.getComplexity(), passwordFromDatabase.getCreated());
+        } else {
+            PasswordComplexity complexity = definePasswordComplexity(password);
+            passwordDto = new PasswordDto(password, complexity.toString(), null);
+        }
+        if(breachedPasswordCorpus.isEnabled()){
+            passwordDto.setBreached(breachedPasswordCorpus.contains(password));
+        }
+        if(passwordStrengthEstimator.isEnabled()){
+            PasswordStrength strength = passwordMetrics.record(PasswordMetrics.Stage.STRENGTH_ESTIMATION, () -> passwordStrengthEstimator.estimate(password));
+            passwordDto.setGuessesLog10(Math.round(strength.getGuessesLog10() * 100) / 100.0);
+            passwordDto.setEntropy(Math.round(strength.getEntropy() * 100) / 100.0);
+        }
+        return passwordDto;
+    }
 
-                @Override
-                public String getCharacters() {
-                    return "!@#$%^&*()-_=+[]{}|?/<>,.;:'`~";
+    private Password findPassword(String password){
+        Password pendingPassword = passwordWriteBehindQueue.findPending(password);
+        if(pendingPassword != null){
+            return pendingPassword;
+        }
+        if(!passwordBloomFilter.mightContain(password)){
+            return null;
+        }
+        List<Password> passwords = passwordMetrics.record(PasswordMetrics.Stage.DUPLICATE_CHECK, () -> passwordStore.findByDigestAndPassword(passwordDigester.digest(password), password));
+        return passwords.isEmpty() ? null : passwords.get(0);
+    }
+
+    private void markExistingPasswords(GeneratedPasswordBatch batch){
+        Set<String> existingPasswords = findExistingPasswords(batch);
+        Set<String> generatedInBatch = new HashSet<>();
+        for(int i = 0; i < batch.size(); i++){
+            String password = batch.getPassword(i);
+            if(!generatedInBatch.add(password) || existingPasswords.contains(password)){
+                batch.markAlreadyExisting(i);
+            }
+        }
+    }
+
+    private void replaceExistingPasswords(GeneratedPasswordBatch batch, int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence){
+        markExistingPasswords(batch);
+        Set<String> acceptedPasswords = new HashSet<>();
+        List<Integer> collisions = new ArrayList<>();
+        for(int i = 0; i < batch.size(); i++){
+            if(batch.isAlreadyExisting(i)){
+                collisions.add(i);
+            } else {
+                acceptedPasswords.add(batch.getPassword(i));
+            }
+        }
+        for(int round = 0; !collisions.isEmpty(); round++){
+            if(round == generationProperties.getUniqueMaxRounds()){
+                throw new UniquePasswordsUnavailableException();
+            }
+            GeneratedPasswordBatch replacements = generate(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, collisions.size());
+            Set<String> existingPasswords = findExistingPasswords(replacements);
+            List<Integer> remainingCollisions = new ArrayList<>();
+            for(int i = 0; i < replacements.size(); i++){
+                String password = replacements.getPassword(i);
+                if(!existingPasswords.contains(password) && acceptedPasswords.add(password)){
+                    batch.replace(collisions.get(i), replacements, i);
+                } else {
+                    remainingCollisions.add(collisions.get(i));
                 }
-            }, 1));
+            }
+            collisions = remainingCollisions;
         }
-        PasswordGenerator generator = new PasswordGenerator();
+    }
 
-        return generator.generatePassword(length, rules);
+    private Set<String> findExistingPasswords(GeneratedPasswordBatch batch){
+        List<String> passwords = new ArrayList<>();
+        List<byte[]> digests = new ArrayList<>();
+        for(int i = 0; i < batch.size(); i++){
+            if(passwordBloomFilter.mightContain(batch.getPassword(i))){
+                passwords.add(batch.getPassword(i));
+                digests.add(batch.getDigest(i));
+            }
+        }
+        Set<String> existingPasswords = passwordWriteBehindQueue.findPending(batch.getPasswords());
+        for(int from = 0; from < passwords.size(); from += EXISTENCE_CHECK_CHUNK_SIZE){
+            int to = Math.min(from + EXISTENCE_CHECK_CHUNK_SIZE, passwords.size());
+            existingPasswords.addAll(passwordStore.findExistingPasswords(digests.subList(from, to), passwords.subList(from, to)));
+        }
+        return existingPasswords;
     }
 
     private PasswordComplexity definePasswordComplexity(String password) {
-        int passwordLength = password.length();
-        boolean specialCharactersPresence = password.matches(".*[!@#$%^&*()\\-_=+\\[\\]{}|?/<>,.;:'`~].*");
-        boolean lowerCasePresence = password.matches(".*[a-z].*");
-        boolean capitalCasePresence = password.matches(".*[A-Z].*");
-        if (passwordLength > 16 && specialCharactersPresence && lowerCasePresence && capitalCasePresence) {
-            return PasswordComplexity.VERY_STRONG;
-        } else if(passwordLength > 8 && specialCharactersPresence && lowerCasePresence && capitalCasePresence) {
-            return PasswordComplexity.STRONG;
-        } else if(passwordLength > 5 && !specialCharactersPresence){
-            return PasswordComplexity.MEDIUM;
-        } else {
-            return PasswordComplexity.WEAK;
-        }
+        return passwordMetrics.record(PasswordMetrics.Stage.CLASSIFICATION, () -> PasswordComplexityClassifier.classify(password));
     }
 
 }
\ No newline at end of file
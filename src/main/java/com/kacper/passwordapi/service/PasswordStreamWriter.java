@@ -0,0 +1,94 @@
+package com.kacper.passwordapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kacper.passwordapi.config.GenerationProperties;
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.dto.PasswordDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Component
+public class PasswordStreamWriter {
+
+    private final PasswordService passwordService;
+    private final ObjectMapper objectMapper;
+    private final GenerationProperties properties;
+
+    public void writePasswords(int length, boolean specialCharactersPresence, boolean lowerCasePresence, boolean capitalCasePresence, long numberOfPasswords, boolean unique, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(GeneratedPasswordDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try(JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)){
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for(long written = 0; written < numberOfPasswords; ){
+                int chunkSize = (int) Math.min(properties.getStreamChunkSize(), numberOfPasswords - written);
+                List<GeneratedPasswordDto> generatedPasswordDtos = unique
+                        ? passwordService.createUniquePassword(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, chunkSize)
+                        : passwordService.createPassword(length, specialCharactersPresence, lowerCasePresence, capitalCasePresence, chunkSize);
+                for(GeneratedPasswordDto generatedPasswordDto : generatedPasswordDtos){
+                    writer.writeValue(generator, generatedPasswordDto);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                written += chunkSize;
+            }
+        }
+    }
+
+    public void verifyPasswords(InputStream inputStream, boolean newlineDelimited, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PasswordDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try(JsonParser parser = objectMapper.getFactory().createParser(inputStream)){
+            // Both a JSON array and a sequence of root level strings are read entry by entry
+            if(parser.nextToken() == JsonToken.START_ARRAY){
+                parser.nextToken();
+            }
+            List<String> chunk = new ArrayList<>(properties.getStreamChunkSize());
+            // Invalid entries of the first chunk are rejected before the first byte is written, later ones abort the stream
+            long position = readPasswordsToVerify(parser, 0, chunk);
+            try(JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)){
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // An aborted array is left open so it can not be mistaken for a complete answer
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.setRootValueSeparator(null);
+                if(!newlineDelimited){
+                    generator.writeStartArray();
+                }
+                while(!chunk.isEmpty()){
+                    for(PasswordDto passwordDto : passwordService.verifyPasswords(chunk)){
+                        writer.writeValue(generator, passwordDto);
+                        if(newlineDelimited){
+                            generator.writeRaw('\n');
+                        }
+                    }
+                    generator.flush();
+                    chunk.clear();
+                    position = readPasswordsToVerify(parser, position, chunk);
+                }
+                if(!newlineDelimited){
+                    generator.writeEndArray();
+                }
+            }
+        }
+    }
+
+    private long readPasswordsToVerify(JsonParser parser, long position, List<String> chunk) throws IOException {
+        while(chunk.size() < properties.getStreamChunkSize() && parser.currentToken() != null && parser.currentToken() != JsonToken.END_ARRAY){
+            String password = parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+            passwordService.checkPasswordToVerify(position++, password);
+            chunk.add(password);
+            parser.nextToken();
+        }
+        return position;
+    }
+}
@@ -0,0 +1,11 @@
+package com.kacper.passwordapi.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public final class PasswordStrength {
+    private final double guessesLog10;
+    private final double entropy;
+}
@@ -0,0 +1,491 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.StrengthProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+public class PasswordStrengthEstimator {
+
+    private static final int MAX_ANALYZED_LENGTH = 100;
+    private static final double BRUTEFORCE_CARDINALITY = 10;
+    private static final double MIN_SUBMATCH_GUESSES_SINGLE_CHAR = 10;
+    private static final double MIN_SUBMATCH_GUESSES_MULTI_CHAR = 50;
+    private static final double MIN_GUESSES_BEFORE_GROWING_SEQUENCE = 10000;
+    private static final int MAX_SEQUENCE_DELTA = 5;
+    private static final double LOG2_10 = Math.log(10) / Math.log(2);
+    private static final int NO_DICTIONARY = -1;
+
+    private static final String[] L33T_SUBSTITUTIONS = new String[128];
+    private static final String[] QWERTY = {
+            "`~ 1! 2@ 3# 4$ 5% 6^ 7& 8* 9( 0) -_ =+",
+            "qQ wW eE rR tT yY uU iI oO pP [{ ]} \\|",
+            "aA sS dD fF gG hH jJ kK lL ;: '\"",
+            "zZ xX cC vV bB nN mM ,< .> /?"
+    };
+    private static final int[][] NEIGHBOURS = {{-1, 0}, {0, -1}, {1, -1}, {1, 0}, {0, 1}, {-1, 1}};
+    private static final String[][] KEYS = new String[QWERTY.length][];
+    private static final int[] KEY_X = new int[128];
+    private static final int[] KEY_Y = new int[128];
+    private static final boolean[] SHIFTED = new boolean[128];
+    private static final double KEYBOARD_STARTING_POSITIONS;
+    private static final double KEYBOARD_AVERAGE_DEGREE;
+    private static final double[] BRUTEFORCE_GUESSES = new double[MAX_ANALYZED_LENGTH + 1];
+    private static final double[] SEQUENCE_PENALTIES = new double[MAX_ANALYZED_LENGTH + 1];
+
+    static {
+        addL33tSubstitutions('a', "4@");
+        addL33tSubstitutions('b', "8");
+        addL33tSubstitutions('c', "({[<");
+        addL33tSubstitutions('e', "3");
+        addL33tSubstitutions('g', "69");
+        addL33tSubstitutions('i', "1!|");
+        addL33tSubstitutions('l', "1|7");
+        addL33tSubstitutions('o', "0");
+        addL33tSubstitutions('s', "$5");
+        addL33tSubstitutions('t', "+7");
+        addL33tSubstitutions('x', "%");
+        addL33tSubstitutions('z', "2");
+
+        Arrays.fill(KEY_X, -1);
+        int keys = 0;
+        for(int y = 0; y < QWERTY.length; y++){
+            String[] row = QWERTY[y].split(" ");
+            KEYS[y] = new String[row.length + 1];
+            for(int i = 0; i < row.length; i++){
+                int x = y == 0 ? i : i + 1;
+                KEYS[y][x] = row[i];
+                for(int shift = 0; shift < 2; shift++){
+                    char c = row[i].charAt(shift);
+                    KEY_X[c] = x;
+                    KEY_Y[c] = y;
+                    SHIFTED[c] = shift == 1;
+                }
+                keys++;
+            }
+        }
+        int degrees = 0;
+        for(int y = 0; y < KEYS.length; y++){
+            for(int x = 0; x < KEYS[y].length; x++){
+                if(KEYS[y][x] != null){
+                    for(int[] neighbour : NEIGHBOURS){
+                        if(key(x + neighbour[0], y + neighbour[1]) != null){
+                            degrees++;
+                        }
+                    }
+                }
+            }
+        }
+        for(int length = 1; length <= MAX_ANALYZED_LENGTH; length++){
+            double minimumGuesses = length == 1 ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR + 1 : MIN_SUBMATCH_GUESSES_MULTI_CHAR + 1;
+            BRUTEFORCE_GUESSES[length] = Math.max(Math.pow(BRUTEFORCE_CARDINALITY, length), minimumGuesses);
+            SEQUENCE_PENALTIES[length] = Math.pow(MIN_GUESSES_BEFORE_GROWING_SEQUENCE, length - 1);
+        }
+        KEYBOARD_STARTING_POSITIONS = 2 * keys;
+        KEYBOARD_AVERAGE_DEGREE = (double) degrees / keys;
+    }
+
+    private final boolean enabled;
+    private final DictionaryTrie dictionary;
+
+    public PasswordStrengthEstimator(StrengthProperties properties){
+        this.enabled = properties.isEnabled();
+        this.dictionary = enabled ? loadDictionaries(properties.getDictionaries()) : new DictionaryTrie.Builder(0).build();
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    public PasswordStrength estimate(String password){
+        double guessesLog10;
+        if(password.length() > MAX_ANALYZED_LENGTH){
+            guessesLog10 = Math.log10(minimumGuesses(password.substring(0, MAX_ANALYZED_LENGTH))) + (password.length() - MAX_ANALYZED_LENGTH) * Math.log10(BRUTEFORCE_CARDINALITY);
+        } else {
+            guessesLog10 = Math.log10(minimumGuesses(password));
+        }
+        return new PasswordStrength(guessesLog10, guessesLog10 * LOG2_10);
+    }
+
+    private double minimumGuesses(String password){
+        int n = password.length();
+        if(n == 0){
+            return 1;
+        }
+        List<Match> matches = new ArrayList<>();
+        matchDictionary(password, false, matches);
+        matchDictionary(new StringBuilder(password).reverse().toString(), true, matches);
+        matchKeyboardWalks(password, matches);
+        matchRepeats(password, matches);
+        matchSequences(password, matches);
+        matches.sort(Comparator.comparingInt(match -> match.end));
+
+        int width = n + 1;
+        double[] lastMatch = new double[width * width];
+        double[] lastBruteforce = new double[width * width];
+        Arrays.fill(lastMatch, Double.POSITIVE_INFINITY);
+        Arrays.fill(lastBruteforce, Double.POSITIVE_INFINITY);
+        lastMatch[0] = 1;
+        int nextMatch = 0;
+        for(int k = 1; k <= n; k++){
+            int current = k * width;
+            for(; nextMatch < matches.size() && matches.get(nextMatch).end == k; nextMatch++){
+                Match match = matches.get(nextMatch);
+                double guesses = Math.max(match.guesses, minimumSubmatchGuesses(match.end - match.start, n));
+                int previous = match.start * width;
+                for(int l = 1; l <= k; l++){
+                    double candidate = Math.min(lastMatch[previous + l - 1], lastBruteforce[previous + l - 1]) * guesses;
+                    if(candidate < lastMatch[current + l]){
+                        lastMatch[current + l] = candidate;
+                    }
+                }
+            }
+            for(int i = 0; i < k; i++){
+                double guesses = BRUTEFORCE_GUESSES[k - i];
+                int previous = i * width;
+                for(int l = 1; l <= i + 1; l++){
+                    double candidate = lastMatch[previous + l - 1] * guesses;
+                    if(candidate < lastBruteforce[current + l]){
+                        lastBruteforce[current + l] = candidate;
+                    }
+                }
+            }
+        }
+        double minimumGuesses = Double.POSITIVE_INFINITY;
+        double factorial = 1;
+        int last = n * width;
+        for(int l = 1; l <= n; l++){
+            factorial *= l;
+            double product = Math.min(lastMatch[last + l], lastBruteforce[last + l]);
+            double guesses = factorial * product + SEQUENCE_PENALTIES[l];
+            minimumGuesses = Math.min(minimumGuesses, guesses);
+        }
+        return Double.isFinite(minimumGuesses) ? minimumGuesses : Math.pow(BRUTEFORCE_CARDINALITY, n);
+    }
+
+    private void matchDictionary(String password, boolean reversed, List<Match> matches){
+        int n = password.length();
+        char[] lowerCase = new char[n];
+        for(int i = 0; i < n; i++){
+            lowerCase[i] = Character.toLowerCase(password.charAt(i));
+        }
+        char[] letters = new char[n];
+        for(int start = 0; start < n; start++){
+            walkDictionary(password, lowerCase, letters, start, start, DictionaryTrie.ROOT, reversed, matches);
+        }
+    }
+
+    private void walkDictionary(String password, char[] lowerCase, char[] letters, int start, int position, int node, boolean reversed, List<Match> matches){
+        if(position == lowerCase.length){
+            return;
+        }
+        char c = lowerCase[position];
+        int child = dictionary.child(node, c);
+        if(child != DictionaryTrie.NONE){
+            letters[position] = c;
+            visitDictionaryNode(password, lowerCase, letters, start, position, child, reversed, matches);
+        }
+        String substitutions = c < 128 ? L33T_SUBSTITUTIONS[c] : null;
+        if(substitutions != null){
+            for(int i = 0; i < substitutions.length(); i++){
+                child = dictionary.child(node, substitutions.charAt(i));
+                if(child != DictionaryTrie.NONE){
+                    letters[position] = substitutions.charAt(i);
+                    visitDictionaryNode(password, lowerCase, letters, start, position, child, reversed, matches);
+                }
+            }
+        }
+    }
+
+    private void visitDictionaryNode(String password, char[] lowerCase, char[] letters, int start, int position, int node, boolean reversed, List<Match> matches){
+        double variations = Double.NaN;
+        for(int d = 0; d < dictionary.dictionaries(); d++){
+            int rank = dictionary.rank(node, d);
+            if(rank > 0){
+                if(Double.isNaN(variations)){
+                    variations = uppercaseVariations(password, start, position + 1) * l33tVariations(lowerCase, letters, start, position + 1);
+                }
+                int n = password.length();
+                if(reversed){
+                    matches.add(new Match(n - 1 - position, n - start, rank * variations * 2, d));
+                } else {
+                    matches.add(new Match(start, position + 1, rank * variations, d));
+                }
+            }
+        }
+        walkDictionary(password, lowerCase, letters, start, position + 1, node, reversed, matches);
+    }
+
+    private void matchKeyboardWalks(String password, List<Match> matches){
+        int n = password.length();
+        int start = 0;
+        while(start < n - 2){
+            int end = start + 1;
+            int lastDirection = -1;
+            int turns = 0;
+            int shifted = isShifted(password.charAt(start)) ? 1 : 0;
+            while(end < n){
+                int direction = direction(password.charAt(end - 1), password.charAt(end));
+                if(direction < 0){
+                    break;
+                }
+                if(direction != lastDirection){
+                    turns++;
+                    lastDirection = direction;
+                }
+                if(isShifted(password.charAt(end))){
+                    shifted++;
+                }
+                end++;
+            }
+            if(end - start > 2){
+                matches.add(new Match(start, end, keyboardWalkGuesses(end - start, turns, shifted)));
+            }
+            start = end;
+        }
+    }
+
+    private void matchRepeats(String password, List<Match> matches){
+        int n = password.length();
+        int start = 0;
+        while(start < n - 1){
+            int bestPeriod = 0;
+            int bestCount = 0;
+            for(int period = 1; start + 2 * period <= n; period++){
+                int count = 1;
+                while(start + (count + 1) * period <= n && password.regionMatches(start, password, start + count * period, period)){
+                    count++;
+                }
+                if(count > 1 && period * count > bestPeriod * bestCount){
+                    bestPeriod = period;
+                    bestCount = count;
+                }
+            }
+            if(bestCount > 1){
+                double baseGuesses = minimumGuesses(password.substring(start, start + bestPeriod));
+                matches.add(new Match(start, start + bestPeriod * bestCount, baseGuesses * bestCount));
+                start += bestPeriod * bestCount;
+            } else {
+                start++;
+            }
+        }
+    }
+
+    private void matchSequences(String password, List<Match> matches){
+        int n = password.length();
+        if(n < 2){
+            return;
+        }
+        int start = 0;
+        int lastDelta = password.charAt(1) - password.charAt(0);
+        for(int k = 1; k < n; k++){
+            int delta = password.charAt(k) - password.charAt(k - 1);
+            if(delta == lastDelta){
+                continue;
+            }
+            addSequence(password, start, k - 1, lastDelta, matches);
+            start = k - 1;
+            lastDelta = delta;
+        }
+        addSequence(password, start, n - 1, lastDelta, matches);
+    }
+
+    private void addSequence(String password, int start, int last, int delta, List<Match> matches){
+        if((last - start > 1 || Math.abs(delta) == 1) && delta != 0 && Math.abs(delta) <= MAX_SEQUENCE_DELTA){
+            char first = password.charAt(start);
+            double baseGuesses;
+            if("aAzZ019".indexOf(first) >= 0){
+                baseGuesses = 4;
+            } else if(Character.isDigit(first)){
+                baseGuesses = 10;
+            } else {
+                baseGuesses = 26;
+            }
+            if(delta < 0){
+                baseGuesses *= 2;
+            }
+            matches.add(new Match(start, last + 1, baseGuesses * (last + 1 - start)));
+        }
+    }
+
+    private static double keyboardWalkGuesses(int length, int turns, int shifted){
+        double guesses = 0;
+        for(int i = 2; i <= length; i++){
+            for(int j = 1; j <= Math.min(turns, i - 1); j++){
+                guesses += binomial(i - 1, j - 1) * KEYBOARD_STARTING_POSITIONS * Math.pow(KEYBOARD_AVERAGE_DEGREE, j);
+            }
+        }
+        int unshifted = length - shifted;
+        if(shifted == 0 || unshifted == 0){
+            return shifted == 0 ? guesses : guesses * 2;
+        }
+        double variations = 0;
+        for(int i = 1; i <= Math.min(shifted, unshifted); i++){
+            variations += binomial(length, i);
+        }
+        return guesses * variations;
+    }
+
+    private static double uppercaseVariations(String password, int start, int end){
+        int upperCase = 0;
+        int lowerCase = 0;
+        for(int i = start; i < end; i++){
+            char c = password.charAt(i);
+            if(Character.isUpperCase(c)){
+                upperCase++;
+            } else if(Character.isLowerCase(c)){
+                lowerCase++;
+            }
+        }
+        if(upperCase == 0){
+            return 1;
+        }
+        boolean onlyFirstUpperCase = upperCase == 1 && Character.isUpperCase(password.charAt(start));
+        boolean onlyLastUpperCase = upperCase == 1 && Character.isUpperCase(password.charAt(end - 1));
+        if(lowerCase == 0 || onlyFirstUpperCase || onlyLastUpperCase){
+            return 2;
+        }
+        double variations = 0;
+        for(int i = 1; i <= Math.min(upperCase, lowerCase); i++){
+            variations += binomial(upperCase + lowerCase, i);
+        }
+        return variations;
+    }
+
+    private static double l33tVariations(char[] lowerCase, char[] letters, int start, int end){
+        double variations = 1;
+        for(int i = start; i < end; i++){
+            if(lowerCase[i] == letters[i] || isCountedSubstitution(lowerCase, letters, start, i)){
+                continue;
+            }
+            int substituted = 0;
+            int unsubstituted = 0;
+            for(int j = start; j < end; j++){
+                if(lowerCase[j] == lowerCase[i] && letters[j] == letters[i]){
+                    substituted++;
+                } else if(lowerCase[j] == letters[i]){
+                    unsubstituted++;
+                }
+            }
+            if(unsubstituted == 0){
+                variations *= 2;
+            } else {
+                double possibilities = 0;
+                for(int j = 1; j <= Math.min(substituted, unsubstituted); j++){
+                    possibilities += binomial(substituted + unsubstituted, j);
+                }
+                variations *= possibilities;
+            }
+        }
+        return variations;
+    }
+
+    private static boolean isCountedSubstitution(char[] lowerCase, char[] letters, int start, int position){
+        for(int i = start; i < position; i++){
+            if(lowerCase[i] == lowerCase[position] && letters[i] == letters[position]){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double minimumSubmatchGuesses(int length, int passwordLength){
+        if(length == passwordLength){
+            return 1;
+        }
+        return length == 1 ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR : MIN_SUBMATCH_GUESSES_MULTI_CHAR;
+    }
+
+    private static double binomial(int n, int k){
+        double result = 1;
+        for(int i = 1; i <= k; i++){
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    private static int direction(char previous, char current){
+        if(previous >= 128 || current >= 128 || KEY_X[previous] < 0 || KEY_X[current] < 0){
+            return -1;
+        }
+        for(int direction = 0; direction < NEIGHBOURS.length; direction++){
+            String key = key(KEY_X[previous] + NEIGHBOURS[direction][0], KEY_Y[previous] + NEIGHBOURS[direction][1]);
+            if(key != null && key.indexOf(current) >= 0){
+                return direction;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isShifted(char c){
+        return c < 128 && SHIFTED[c];
+    }
+
+    private static String key(int x, int y){
+        if(y < 0 || y >= KEYS.length || x < 0 || x >= KEYS[y].length){
+            return null;
+        }
+        return KEYS[y][x];
+    }
+
+    private static void addL33tSubstitutions(char letter, String substitutions){
+        for(int i = 0; i < substitutions.length(); i++){
+            char substitution = substitutions.charAt(i);
+            L33T_SUBSTITUTIONS[substitution] = L33T_SUBSTITUTIONS[substitution] == null ? String.valueOf(letter) : L33T_SUBSTITUTIONS[substitution] + letter;
+        }
+    }
+
+    private static DictionaryTrie loadDictionaries(List<String> locations){
+        ResourceLoader resourceLoader = new DefaultResourceLoader();
+        DictionaryTrie.Builder builder = new DictionaryTrie.Builder(locations.size());
+        for(int dictionary = 0; dictionary < locations.size(); dictionary++){
+            String location = locations.get(dictionary);
+            Resource resource = resourceLoader.getResource(location);
+            try(BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))){
+                int rank = 0;
+                String line;
+                while((line = reader.readLine()) != null){
+                    String word = line.trim().toLowerCase(Locale.ROOT);
+                    if(!word.isEmpty() && !word.startsWith("#")){
+                        builder.add(dictionary, word, ++rank);
+                    }
+                }
+            } catch(IOException exception){
+                throw new UncheckedIOException("Could not load dictionary " + location, exception);
+            }
+        }
+        return builder.build();
+    }
+
+    private static final class Match {
+        private final int start;
+        private final int end;
+        private final double guesses;
+        // Index into password-api.strength.dictionaries whose rank the guesses are based on
+        private final int dictionary;
+
+        private Match(int start, int end, double guesses){
+            this(start, end, guesses, NO_DICTIONARY);
+        }
+
+        private Match(int start, int end, double guesses, int dictionary){
+            this.start = start;
+            this.end = end;
+            this.guesses = guesses;
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.kacper.passwordapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kacper.passwordapi.config.VerificationCacheProperties;
+import com.kacper.passwordapi.dto.PasswordDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+@Component
+public class PasswordVerificationCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "password.verification";
+
+    private final Cache<String, Entry> cache;
+    // Counted here rather than by Caffeine, which would count a lookup finding another verification's placeholder as a hit
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PasswordVerificationCache(VerificationCacheProperties properties){
+        this.cache = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getExpireAfterWrite())
+                        .<String, Entry>evictionListener((password, entry, cause) -> {
+                            if(entry instanceof Verification){
+                                evictions.increment();
+                            }
+                        })
+                        .build()
+                : null;
+    }
+
+    public PasswordDto get(String password, Function<String, PasswordDto> verification){
+        if(cache == null){
+            return verification.apply(password);
+        }
+        if(cache.getIfPresent(password) instanceof Verification cachedVerification){
+            hits.increment();
+            return cachedVerification.toPasswordDto();
+        }
+        misses.increment();
+        // The result is only cached if nothing invalidated this password while it was being verified,
+        // which removes the placeholder and makes the replace below a no-op
+        Entry placeholder = new Entry();
+        cache.put(password, placeholder);
+        PasswordDto passwordDto = verification.apply(password);
+        cache.asMap().replace(password, placeholder, new Verification(passwordDto));
+        return passwordDto;
+    }
+
+    public void invalidate(Collection<String> passwords){
+        if(cache == null){
+            return;
+        }
+        cache.invalidateAll(passwords);
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            List<String> committedPasswords = List.copyOf(passwords);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(committedPasswords);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(){
+        if(cache != null){
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if(cache == null){
+            return;
+        }
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    // Compared by identity, so a placeholder is only replaced by the verification that put it
+    private static class Entry {
+    }
+
+    private static final class Verification extends Entry {
+        private final String password;
+        private final String complexity;
+        private final LocalDateTime created;
+        private final Boolean breached;
+        private final Double guessesLog10;
+        private final Double entropy;
+
+        private Verification(PasswordDto passwordDto){
+            this.password = passwordDto.getPassword();
+            this.complexity = passwordDto.getComplexity();
+            this.created = passwordDto.getCreated();
+            this.breached = passwordDto.getBreached();
+            this.guessesLog10 = passwordDto.getGuessesLog10();
+            this.entropy = passwordDto.getEntropy();
+        }
+
+        private PasswordDto toPasswordDto(){
+            PasswordDto passwordDto = new PasswordDto(password, complexity, created);
+            passwordDto.setBreached(breached);
+            passwordDto.setGuessesLog10(guessesLog10);
+            passwordDto.setEntropy(entropy);
+            return passwordDto;
+        }
+    }
+}
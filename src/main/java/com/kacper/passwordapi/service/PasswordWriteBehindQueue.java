@@ -0,0 +1,215 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.WriteBehindProperties;
+import com.kacper.passwordapi.entity.Password;
+import com.kacper.passwordapi.exception.ServiceUnavailableException;
+import com.kacper.passwordapi.repository.PasswordStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class PasswordWriteBehindQueue implements MeterBinder {
+
+    private final PasswordStore passwordStore;
+    private final PasswordBloomFilter passwordBloomFilter;
+    private final WriteBehindProperties properties;
+    private final TransactionOperations transactionOperations;
+    private final BlockingQueue<Password> queue;
+    private final ConcurrentMap<String, Password> pendingPasswords = new ConcurrentHashMap<>();
+    private final Object flushMonitor = new Object();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder flushedPasswords = new LongAdder();
+    private final LongAdder callerRunsPasswords = new LongAdder();
+
+    private final List<Password> unflushed = new ArrayList<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PasswordWriteBehindQueue(PasswordStore passwordStore, PasswordBloomFilter passwordBloomFilter, WriteBehindProperties properties, TransactionOperations transactionOperations){
+        this.passwordStore = passwordStore;
+        this.passwordBloomFilter = passwordBloomFilter;
+        this.properties = properties;
+        this.transactionOperations = transactionOperations;
+        this.queue = properties.isEnabled() ? new ArrayBlockingQueue<>(properties.getCapacity()) : null;
+    }
+
+    public boolean isEnabled(){
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void start(){
+        if(!properties.isEnabled()){
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "password-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void enqueue(List<Password> passwords){
+        List<Password> overflow = new ArrayList<>();
+        for(Password password : passwords){
+            pendingPasswords.put(password.getPassword(), password);
+            if(queue.offer(password)){
+                continue;
+            }
+            // blocking while the caller's transaction holds a pooled connection can starve the writer of the one it needs
+            if(properties.getOverflowPolicy() == WriteBehindProperties.OverflowPolicy.CALLER_RUNS || TransactionSynchronizationManager.isActualTransactionActive()){
+                pendingPasswords.remove(password.getPassword(), password);
+                overflow.add(password);
+            } else {
+                try {
+                    queue.put(password);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    pendingPasswords.remove(password.getPassword(), password);
+                    throw new IllegalStateException("Interrupted while waiting for space in the write-behind queue", exception);
+                }
+            }
+        }
+        if(!overflow.isEmpty()){
+            passwordStore.upsertAll(overflow);
+            passwordBloomFilter.putAll(overflow.stream().map(Password::getPassword).toList());
+            callerRunsPasswords.add(overflow.size());
+        }
+    }
+
+    public Password findPending(String password){
+        return pendingPasswords.get(password);
+    }
+
+    public Set<String> findPending(Collection<String> passwords){
+        Set<String> pending = new HashSet<>();
+        if(pendingPasswords.isEmpty()){
+            return pending;
+        }
+        for(String password : passwords){
+            if(pendingPasswords.containsKey(password)){
+                pending.add(password);
+            }
+        }
+        return pending;
+    }
+
+    public void awaitFlushed(String password){
+        long deadline = System.nanoTime() + properties.getRemovalTimeout().toNanos();
+        synchronized(flushMonitor){
+            while(pendingPasswords.containsKey(password)){
+                long remaining = deadline - System.nanoTime();
+                if(remaining <= 0){
+                    throw new ServiceUnavailableException("Password is still waiting in the write-behind queue", properties.getRetryBackoff());
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(flushMonitor, remaining);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the write-behind queue", exception);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if(writer == null){
+            return;
+        }
+        running = false;
+        writer.join();
+        List<Password> remaining = new ArrayList<>(unflushed);
+        queue.drainTo(remaining);
+        if(!remaining.isEmpty()){
+            log.info("Flushing {} queued passwords on shutdown", remaining.size());
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.write.behind.queue.size", this, writeBehindQueue -> writeBehindQueue.queue == null ? 0 : writeBehindQueue.queue.size())
+                .register(registry);
+        Gauge.builder("password.write.behind.queue.capacity", properties, WriteBehindProperties::getCapacity)
+                .register(registry);
+        FunctionTimer.builder("password.write.behind.flush", this, writeBehindQueue -> writeBehindQueue.flushes.sum(), writeBehindQueue -> writeBehindQueue.flushNanos.sum(), TimeUnit.NANOSECONDS)
+                .register(registry);
+        FunctionCounter.builder("password.write.behind.flushed", flushedPasswords, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("password.write.behind.caller.runs", callerRunsPasswords, LongAdder::sum)
+                .register(registry);
+    }
+
+    private void drain(){
+        List<Password> batch = new ArrayList<>(properties.getBatchSize());
+        while(running){
+            try {
+                Password first = queue.poll(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if(first == null){
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                if(!flushWithRetries(batch)){
+                    unflushed.addAll(batch);
+                }
+                batch.clear();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean flushWithRetries(List<Password> batch) throws InterruptedException {
+        while(running){
+            try {
+                flush(batch);
+                return true;
+            } catch (RuntimeException exception) {
+                log.warn("Write-behind flush of {} passwords failed, retrying", batch.size(), exception);
+                Thread.sleep(properties.getRetryBackoff().toMillis());
+            }
+        }
+        return false;
+    }
+
+    private void flush(List<Password> batch){
+        long start = System.nanoTime();
+        transactionOperations.executeWithoutResult(status -> passwordStore.upsertAll(batch));
+        flushNanos.add(System.nanoTime() - start);
+        flushes.increment();
+        flushedPasswords.add(batch.size());
+        passwordBloomFilter.putAll(batch.stream().map(Password::getPassword).toList());
+        synchronized(flushMonitor){
+            for(Password password : batch){
+                pendingPasswords.remove(password.getPassword(), password);
+            }
+            flushMonitor.notifyAll();
+        }
+    }
+}
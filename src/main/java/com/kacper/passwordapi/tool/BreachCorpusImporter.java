@@ -0,0 +1,87 @@
+package com.kacper.passwordapi.tool;
+
+import com.kacper.passwordapi.repository.BreachedPasswordCorpus;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+public final class BreachCorpusImporter {
+
+    private BreachCorpusImporter(){
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2){
+            System.err.println("Usage: BreachCorpusImporter <sorted SHA-1 dump> <corpus file>");
+            System.exit(1);
+        }
+        long records = importCorpus(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Imported " + records + " hashes into " + args[1]);
+    }
+
+    public static long importCorpus(Path dump, Path corpus) throws IOException {
+        long[] prefixCounts = new long[BreachedPasswordCorpus.PREFIXES];
+        long records = 0;
+        try(FileChannel channel = FileChannel.open(corpus, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            BufferedReader reader = Files.newBufferedReader(dump, StandardCharsets.US_ASCII)){
+            channel.position(BreachedPasswordCorpus.HEADER_SIZE);
+            OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 20);
+            byte[] previous = null;
+            String line;
+            long lineNumber = 0;
+            while((line = reader.readLine()) != null){
+                lineNumber++;
+                if(line.isBlank()){
+                    continue;
+                }
+                int separator = line.indexOf(':');
+                byte[] hash = HexFormat.of().parseHex(separator < 0 ? line.trim() : line.substring(0, separator).trim());
+                if(hash.length != BreachedPasswordCorpus.RECORD_SIZE){
+                    throw new IllegalArgumentException("Line " + lineNumber + " does not hold a SHA-1 hash");
+                }
+                if(previous != null){
+                    int comparison = Arrays.compareUnsigned(previous, hash);
+                    if(comparison == 0){
+                        continue;
+                    }
+                    if(comparison > 0){
+                        throw new IllegalArgumentException("Line " + lineNumber + " is out of order, the dump must be sorted by hash");
+                    }
+                }
+                output.write(hash);
+                prefixCounts[(hash[0] & 0xFF) << 8 | (hash[1] & 0xFF)]++;
+                previous = hash;
+                records++;
+            }
+            long indexOffset = BreachedPasswordCorpus.HEADER_SIZE + records * BreachedPasswordCorpus.RECORD_SIZE;
+            DataOutputStream index = new DataOutputStream(output);
+            long start = 0;
+            for(long prefixCount : prefixCounts){
+                index.writeLong(start);
+                start += prefixCount;
+            }
+            index.writeLong(start);
+            index.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(BreachedPasswordCorpus.HEADER_SIZE)
+                    .putLong(BreachedPasswordCorpus.MAGIC)
+                    .putLong(records)
+                    .putLong(indexOffset)
+                    .flip();
+            channel.write(header, 0);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,13 @@
+create sequence if not exists password_seq start with 1 increment by 50;
+
+create table if not exists password (
+    id bigint not null primary key,
+    created timestamp,
+    password varchar(255),
+    complexity varchar(255),
+    digest bytea,
+    occurrences bigint default 1 not null,
+    last_seen timestamp
+);
+
+create unique index if not exists password_digest_key on password (digest);
@@ -0,0 +1,102 @@
+package com.kacper.passwordapi;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application in a fresh process and measures the time until the first request is served.
+ * Only runs when a budget is given, e.g. {@code -Dstartup.budget=PT20S}. {@code -Dstartup.aot=true} starts the JVM
+ * build with the AOT-generated initializers and {@code -Dstartup.executable=target/password-api} measures a native
+ * image instead.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "startup.budget", matches = ".+")
+class StartupBudgetTest {
+
+    private final Duration budget = Duration.parse(System.getProperty("startup.budget"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void firstRequestShouldBeServedWithinStartupBudget() throws Exception {
+        int port = freePort();
+        Path output = directory.resolve("startup.log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        try{
+            Duration startup = awaitFirstResponse(process, port, start, output);
+            log.info("First request served after {} ms, budget is {} ms", startup.toMillis(), budget.toMillis());
+            assertTrue(startup.compareTo(budget) <= 0, () -> "First request served after " + startup.toMillis() + " ms, budget is " + budget.toMillis() + " ms");
+        } finally {
+            process.destroy();
+            if(!process.waitFor(30, TimeUnit.SECONDS)){
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        String executable = System.getProperty("startup.executable");
+        if(executable != null){
+            command.add(executable);
+        } else {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            if(Boolean.getBoolean("startup.aot")){
+                command.add("-Dspring.aot.enabled=true");
+            }
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(PasswordApiApplication.class.getName());
+        }
+        command.add("--server.port=" + port);
+        return command;
+    }
+
+    private Duration awaitFirstResponse(Process process, int port, long start, Path output) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/password-api/verification/Pa55word1")).build();
+        // keep waiting past the budget so a failure reports how long startup actually took
+        long deadline = start + 2 * budget.toNanos();
+        while(System.nanoTime() < deadline){
+            if(!process.isAlive()){
+                fail("Application exited during startup:\n" + Files.readString(output));
+            }
+            try{
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                assertEquals(200, response.statusCode());
+                return Duration.ofNanos(System.nanoTime() - start);
+            } catch(ConnectException exception){
+                Thread.sleep(20);
+            }
+        }
+        return fail("No request served within " + 2 * budget.toMillis() + " ms:\n" + Files.readString(output));
+    }
+
+    private static int freePort() throws Exception {
+        try(ServerSocket socket = new ServerSocket(0)){
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.kacper.passwordapi.config;
+
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.entity.Password;
+import com.kacper.passwordapi.exceptionhandler.ErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordApiRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void entityDtosAndResourcesShouldBeRegistered() throws Exception {
+        new PasswordApiRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Password.class).withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(GeneratedPasswordDto.class.getMethod("getPasswordAlreadyExists")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(PasswordDto.class.getMethod("getGuessesLog10")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ErrorResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/shard-schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("dictionaries/passwords.txt").test(hints));
+    }
+}
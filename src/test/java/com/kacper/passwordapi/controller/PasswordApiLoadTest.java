@@ -0,0 +1,79 @@
+package com.kacper.passwordapi.controller;
+
+import com.kacper.passwordapi.PasswordApiApplication;
+import com.kacper.passwordapi.repository.PasswordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordApiLoadTest {
+
+    private static final int WARMUP_REQUESTS = 2000;
+    private static final int MEASURED_REQUESTS = 20000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {64, 512, 2048})
+    void compareBlockingAndReactiveThroughput(int concurrency) {
+        double blockingThroughput = measure(concurrency);
+        double reactiveThroughput = measure(concurrency, "reactive");
+
+        log.info("concurrency={} blocking={} req/s reactive={} req/s ratio={}x", concurrency,
+                Math.round(blockingThroughput), Math.round(reactiveThroughput), "%.2f".formatted(reactiveThroughput / blockingThroughput));
+    }
+
+    private double measure(int concurrency, String... profiles) {
+        try(ConfigurableApplicationContext context = new SpringApplicationBuilder(PasswordApiApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "server.tomcat.threads.max=200", "password-api.admission.enabled=false")
+                .run()){
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ConnectionProvider connectionProvider = ConnectionProvider.builder("load-test")
+                    .maxConnections(concurrency)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            WebClient webClient = WebClient.builder()
+                    .baseUrl("http://localhost:" + port + "/password-api")
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                    .build();
+            try{
+                run(webClient, concurrency, WARMUP_REQUESTS);
+                long start = System.nanoTime();
+                long succeeded = run(webClient, concurrency, MEASURED_REQUESTS);
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                assertEquals(MEASURED_REQUESTS, succeeded);
+                return MEASURED_REQUESTS / seconds;
+            } finally {
+                connectionProvider.dispose();
+                context.getBean(PasswordRepository.class).deleteAllInBatch();
+            }
+        }
+    }
+
+    private static long run(WebClient webClient, int concurrency, int requests) {
+        AtomicLong succeeded = new AtomicLong();
+        Flux.range(0, requests)
+                .flatMap(i -> (i % 2 == 0
+                        ? webClient.get().uri("/passwords?lgth=16&spclCh=true&lwrCsLet=true&cptCsLet=true&passwords=10")
+                        : webClient.get().uri("/verification/{password}", "Pa55word" + i))
+                        .retrieve()
+                        .toBodilessEntity()
+                        .doOnNext(response -> succeeded.incrementAndGet()), concurrency)
+                .blockLast();
+        return succeeded.get();
+    }
+}
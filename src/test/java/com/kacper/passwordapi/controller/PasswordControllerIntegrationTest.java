@@ -1,11 +1,14 @@
 package com.kacper.passwordapi.controller;
 
+import com.kacper.passwordapi.converter.GeneratedPasswordBatchHttpMessageConverter;
 import com.kacper.passwordapi.dto.GeneratedPasswordDto;
 import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.dto.RemovedPasswordsDto;
 import com.kacper.passwordapi.entity.Password;
 import com.kacper.passwordapi.enums.PasswordComplexity;
 import com.kacper.passwordapi.exceptionhandler.ErrorResponse;
 import com.kacper.passwordapi.repository.PasswordRepository;
+import com.kacper.passwordapi.service.PasswordDigester;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +16,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.jdbc.Sql;
@@ -20,6 +24,11 @@ import org.springframework.test.context.jdbc.Sql;
 import static org.junit.jupiter.api.Assertions.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -35,6 +44,9 @@ class PasswordControllerIntegrationTest {
     @Autowired
     private PasswordRepository passwordRepository;
 
+    @Autowired
+    private PasswordDigester passwordDigester;
+
     @Nested
     class createPassword {
         @Test
@@ -126,6 +138,128 @@ class PasswordControllerIntegrationTest {
         }
     }
 
+    @Nested
+    class CreateUniquePassword {
+        @Test
+        void createUniquePasswordShouldReturnOnlyNewPasswords() throws Exception {
+            RequestEntity<Void> request = RequestEntity
+                    .get(createServerAddress(
+                            "/passwords?lgth=3&spclCh=false&lwrCsLet=true&cptCsLet=false&passwords=1000&unique=true"
+                    )).build();
+
+            ResponseEntity<List<GeneratedPasswordDto>> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<List<GeneratedPasswordDto>>() {});
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals(1000, response.getBody().size());
+            assertEquals(1000, response.getBody().stream().map(GeneratedPasswordDto::getPassword).distinct().count());
+            assertTrue(response.getBody().stream().allMatch(generatedPasswordDto -> generatedPasswordDto.getPasswordAlreadyExists() == null));
+            assertEquals(1000, passwordRepository.count());
+        }
+    }
+
+    @Nested
+    class CreatePasswordBatch {
+        @Test
+        void createPasswordBatchShouldReturnBinaryColumns() throws Exception {
+            RequestEntity<Void> request = RequestEntity
+                    .get(createServerAddress(
+                            "/passwords?lgth=3&spclCh=false&lwrCsLet=true&cptCsLet=false&passwords=1000&unique=true"
+                    )).accept(GeneratedPasswordBatchHttpMessageConverter.PASSWORD_BATCH).build();
+
+            ResponseEntity<byte[]> response = testRestTemplate.exchange(request, byte[].class);
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals(GeneratedPasswordBatchHttpMessageConverter.PASSWORD_BATCH, response.getHeaders().getContentType());
+            ByteBuffer body = ByteBuffer.wrap(response.getBody());
+            assertEquals(GeneratedPasswordBatchHttpMessageConverter.VERSION, body.get());
+            assertEquals(1000, body.getInt());
+            List<String> passwords = new ArrayList<>();
+            for(int i = 0; i < 1000; i++){
+                byte[] password = new byte[body.get() & 0xFF];
+                body.get(password);
+                passwords.add(new String(password, StandardCharsets.UTF_8));
+            }
+            for(int i = 0; i < 1000; i++){
+                assertEquals(0, body.get());
+            }
+            byte[] flags = new byte[2 * 125];
+            body.get(flags);
+            assertArrayEquals(new byte[flags.length], flags);
+            assertFalse(body.hasRemaining());
+            assertTrue(passwords.stream().allMatch(password -> password.length() == 3));
+            assertEquals(1000, passwords.stream().distinct().count());
+            assertEquals(1000, passwordRepository.count());
+        }
+
+        @Test
+        void createPasswordBatchShouldReturnOnePasswordPerLine() throws Exception {
+            RequestEntity<Void> request = RequestEntity
+                    .get(createServerAddress(
+                            "/passwords?lgth=12&spclCh=true&lwrCsLet=true&cptCsLet=true&passwords=20&unique=true"
+                    )).accept(MediaType.TEXT_PLAIN).build();
+
+            ResponseEntity<String> response = testRestTemplate.exchange(request, String.class);
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertTrue(MediaType.TEXT_PLAIN.isCompatibleWith(response.getHeaders().getContentType()));
+            String[] lines = response.getBody().split("\n");
+            assertEquals(20, lines.length);
+            assertTrue(Arrays.stream(lines).allMatch(line -> line.length() == 12));
+            assertEquals(20, passwordRepository.count());
+        }
+
+        @Test
+        void createPasswordBatchShouldReturnErrorsAsJson() throws Exception {
+            RequestEntity<Void> request = RequestEntity
+                    .get(createServerAddress(
+                            "/passwords?lgth=9&spclCh=false&lwrCsLet=false&cptCsLet=false&passwords=5"
+                    )).accept(MediaType.TEXT_PLAIN).build();
+
+            ResponseEntity<String> response = testRestTemplate.exchange(request, String.class);
+
+            assertEquals(412, response.getStatusCode().value());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            assertTrue(response.getBody().contains("At least one parameter value must be true"));
+        }
+    }
+
+    @Nested
+    class StreamPasswords {
+        @Test
+        void streamPasswordsShouldReturnOnePasswordPerLine() throws Exception {
+            RequestEntity<Void> request = RequestEntity
+                    .get(createServerAddress(
+                            "/passwords/stream?lgth=17&spclCh=true&lwrCsLet=true&cptCsLet=true&passwords=2500"
+                    )).build();
+
+            ResponseEntity<String> response = testRestTemplate.exchange(request, String.class);
+
+            List<Password> passwords = passwordRepository.findAll();
+            String[] lines = response.getBody().split("\n");
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+            assertEquals(2500, lines.length);
+            assertEquals(2500, passwords.size());
+            for(String line : lines){
+                assertTrue(line.contains("\"complexity\":\"VERY_STRONG\""));
+            }
+        }
+
+        @Test
+        void streamPasswordsShouldReturnUnacceptableValuesOfParametersException() throws Exception {
+            RequestEntity<Void> request = RequestEntity
+                    .get(createServerAddress(
+                            "/passwords/stream?lgth=9&spclCh=false&lwrCsLet=false&cptCsLet=false&passwords=5"
+                    )).build();
+
+            ResponseEntity<ErrorResponse> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<ErrorResponse>() {});
+
+            assertEquals(412, response.getBody().getStatus());
+            assertEquals("At least one parameter value must be true", response.getBody().getMessage());
+        }
+    }
+
     @Nested
     class VerifyPassword {
         @Test
@@ -148,7 +282,7 @@ class PasswordControllerIntegrationTest {
         @Test
         void verifyPasswordThatAlreadyExistInDatabase() throws Exception {
             final String PASSWORD = "@fH%$olGVzq";
-            passwordRepository.save(new Password(PASSWORD, "STRONG", null));
+            savePassword(PASSWORD, "STRONG", null);
             RequestEntity<Void> request = RequestEntity.get(createServerAddress("/verification/%40fH%25%24olGVzq")).build();
 
             ResponseEntity<PasswordDto> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<PasswordDto>() {});
@@ -161,7 +295,7 @@ class PasswordControllerIntegrationTest {
         @Test
         void verifyPasswordThatDoesNotExistInDatabase() throws Exception {
             final String PASSWORD = "oPqfGXX";
-            passwordRepository.save(new Password(PASSWORD, "MEDIUM", null));
+            savePassword(PASSWORD, "MEDIUM", null);
 
             RequestEntity<Void> request = RequestEntity.get(createServerAddress("/verification/oPqfGXX")).build();
 
@@ -174,6 +308,59 @@ class PasswordControllerIntegrationTest {
         }
     }
 
+    @Nested
+    class VerifyPasswords {
+        @Test
+        void verifyPasswordsShouldReturnPasswordDtoPerEntry() throws Exception {
+            final String EXISTING_PASSWORD = "@fH%$olGVzq";
+            savePassword(EXISTING_PASSWORD, "STRONG", LocalDateTime.now());
+            RequestEntity<List<String>> request = RequestEntity
+                    .post(createServerAddress("/verification"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(List.of("oUQl", EXISTING_PASSWORD, "Q{cRb]l=xo+^v&TOvn"));
+
+            ResponseEntity<List<PasswordDto>> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<List<PasswordDto>>() {});
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals(3, response.getBody().size());
+            assertEquals("oUQl", response.getBody().get(0).getPassword());
+            assertEquals(PasswordComplexity.WEAK.toString(), response.getBody().get(0).getComplexity());
+            assertNull(response.getBody().get(0).getCreated());
+            assertEquals(EXISTING_PASSWORD, response.getBody().get(1).getPassword());
+            assertNotNull(response.getBody().get(1).getCreated());
+            assertEquals(PasswordComplexity.VERY_STRONG.toString(), response.getBody().get(2).getComplexity());
+        }
+
+        @Test
+        void verifyPasswordsShouldAcceptNewlineDelimitedJson() throws Exception {
+            RequestEntity<String> request = RequestEntity
+                    .post(createServerAddress("/verification"))
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body("\"oUQl\"\n\"djvkcdl\"\n");
+
+            ResponseEntity<String> response = testRestTemplate.exchange(request, String.class);
+
+            String[] lines = response.getBody().split("\n");
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals(2, lines.length);
+            assertTrue(lines[0].contains("\"complexity\":\"WEAK\""));
+            assertTrue(lines[1].contains("\"complexity\":\"MEDIUM\""));
+        }
+
+        @Test
+        void verifyPasswordsWithInvalidEntryShouldReturnUnacceptableValuesOfParametersException() throws Exception {
+            RequestEntity<String> request = RequestEntity
+                    .post(createServerAddress("/verification"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("[\"oUQl\", null]");
+
+            ResponseEntity<ErrorResponse> response = testRestTemplate.exchange(request, ErrorResponse.class);
+
+            assertEquals(412, response.getStatusCode().value());
+            assertEquals("Password at position 1 must be a string", response.getBody().getMessage());
+        }
+    }
+
     @Nested
     class RemovePassword {
         @Test
@@ -196,7 +383,7 @@ class PasswordControllerIntegrationTest {
         @Test
         void removePasswordThatExistsInDatabase() throws Exception{
             final String PASSWORD = "!_ySL&?vE~e|wwDHk{a";
-            passwordRepository.save(new Password(PASSWORD, "VERY_STRONG", null));
+            savePassword(PASSWORD, "VERY_STRONG", null);
             RequestEntity<Void> request = RequestEntity.delete(createServerAddress("/removal/%21_ySL%26%3FvE~e%7CwwDHk%7Ba")).build();
 
             ResponseEntity<PasswordDto> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<PasswordDto>() {});
@@ -222,9 +409,55 @@ class PasswordControllerIntegrationTest {
             assertEquals("NOT_FOUND", response.getBody().getError());
             assertEquals("Password not found", response.getBody().getMessage());
         }
+
+        @Test
+        void removeListedPasswordsShouldReturnNumberOfRemovedPasswords() throws Exception{
+            savePassword("RMBqIpf", "MEDIUM", LocalDateTime.now());
+            savePassword("oPqfGXX", "MEDIUM", LocalDateTime.now());
+            savePassword("@fH%$olGVzq", "STRONG", LocalDateTime.now());
+            RequestEntity<List<String>> request = RequestEntity.post(createServerAddress("/removal"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(List.of("RMBqIpf", "@fH%$olGVzq", "HQBZ"));
+
+            ResponseEntity<RemovedPasswordsDto> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<RemovedPasswordsDto>() {});
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals(2, response.getBody().getRemoved());
+            assertEquals(List.of("oPqfGXX"), passwordRepository.findAll().stream().map(Password::getPassword).toList());
+        }
+
+        @Test
+        void removeFilteredPasswordsShouldKeepNotMatchingPasswords() throws Exception{
+            savePassword("RMBqIpf", "MEDIUM", LocalDateTime.of(2022, 1, 1, 12, 0));
+            savePassword("oPqfGXX", "MEDIUM", LocalDateTime.of(2023, 1, 1, 12, 0));
+            savePassword("@fH%$olGVzq", "STRONG", LocalDateTime.of(2022, 1, 1, 12, 0));
+            RequestEntity<Void> request = RequestEntity.delete(createServerAddress("/removal?complexity=MEDIUM&createdBefore=2022-06-01T00:00:00")).build();
+
+            ResponseEntity<RemovedPasswordsDto> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<RemovedPasswordsDto>() {});
+
+            assertTrue(response.getStatusCode().is2xxSuccessful());
+            assertEquals(1, response.getBody().getRemoved());
+            assertEquals(2, passwordRepository.count());
+        }
+
+        @Test
+        void removeWithoutFilterShouldReturnUnacceptableValuesOfParametersException() throws Exception{
+            RequestEntity<Void> request = RequestEntity.delete(createServerAddress("/removal")).build();
+
+            ResponseEntity<ErrorResponse> response = testRestTemplate.exchange(request, new ParameterizedTypeReference<ErrorResponse>() {});
+
+            assertEquals(412, response.getBody().getStatus());
+            assertEquals("Complexity or creation date must be given", response.getBody().getMessage());
+        }
     }
 
     private URI createServerAddress(String endpoint) throws URISyntaxException {
         return new URI("http://localhost:" + serverPort + "/password-api" + endpoint);
     }
-}
\ No newline at end of file
+
+    private void savePassword(String value, String complexity, LocalDateTime created) {
+        Password password = new Password(value, complexity, created);
+        password.setDigest(passwordDigester.digest(value));
+        passwordRepository.save(password);
+    }
+}
@@ -0,0 +1,177 @@
+package com.kacper.passwordapi.controller;
+
+import com.kacper.passwordapi.dto.GeneratedPasswordDto;
+import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.entity.Password;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import com.kacper.passwordapi.exceptionhandler.ErrorResponse;
+import com.kacper.passwordapi.repository.PasswordRepository;
+import com.kacper.passwordapi.service.PasswordDigester;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@Sql(value = "/clean_database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ReactivePasswordControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private PasswordDigester passwordDigester;
+
+    @Test
+    void createPasswordShouldReturnListOfPasswords() {
+        List<GeneratedPasswordDto> generatedPasswordDtos = webTestClient.get()
+                .uri("/password-api/passwords?lgth=11&spclCh=true&lwrCsLet=true&cptCsLet=true&passwords=4")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBodyList(GeneratedPasswordDto.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(4, generatedPasswordDtos.size());
+        assertEquals(4, passwordRepository.findAll().size());
+        for(GeneratedPasswordDto generatedPasswordDto : generatedPasswordDtos){
+            assertEquals(PasswordComplexity.STRONG.toString(), generatedPasswordDto.getComplexity());
+        }
+    }
+
+    @Test
+    void createPasswordWithInvalidPasswordsNumberShouldReturnConstraintViolationException() {
+        ErrorResponse errorResponse = webTestClient.get()
+                .uri("/password-api/passwords?lgth=9&spclCh=true&lwrCsLet=true&cptCsLet=true&passwords=1001")
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody(ErrorResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("UNPROCESSABLE_ENTITY", errorResponse.getError());
+        assertEquals("createPassword.numberOfPasswords: Number of generated passwords can not be higher than 1000", errorResponse.getMessage());
+        assertNotNull(errorResponse.getTimestamp());
+    }
+
+    @Test
+    void createPasswordShouldReturnUnacceptableValuesOfParametersException() {
+        ErrorResponse errorResponse = webTestClient.get()
+                .uri("/password-api/passwords?lgth=9&spclCh=false&lwrCsLet=false&cptCsLet=false&passwords=5")
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody(ErrorResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("At least one parameter value must be true", errorResponse.getMessage());
+    }
+
+    @Test
+    void streamPasswordsShouldReturnOnePasswordPerLine() {
+        List<GeneratedPasswordDto> generatedPasswordDtos = webTestClient.get()
+                .uri("/password-api/passwords/stream?lgth=17&spclCh=true&lwrCsLet=true&cptCsLet=true&passwords=2500")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .returnResult(GeneratedPasswordDto.class)
+                .getResponseBody().collectList().block();
+
+        assertEquals(2500, generatedPasswordDtos.size());
+        assertEquals(2500, passwordRepository.count());
+    }
+
+    @Test
+    void verifyPasswordThatAlreadyExistInDatabase() {
+        final String PASSWORD = "@fH%$olGVzq";
+        savePassword(PASSWORD, "STRONG", LocalDateTime.now());
+
+        PasswordDto passwordDto = webTestClient.get()
+                .uri("/password-api/verification/{password}", PASSWORD)
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody(PasswordDto.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(PASSWORD, passwordDto.getPassword());
+        assertEquals(PasswordComplexity.STRONG.toString(), passwordDto.getComplexity());
+        assertNotNull(passwordDto.getCreated());
+    }
+
+    @Test
+    void verifyPasswordsShouldReturnPasswordDtoPerEntry() {
+        List<PasswordDto> passwordDtos = webTestClient.post()
+                .uri("/password-api/verification")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("oUQl", "Q{cRb]l=xo+^v&TOvn"))
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBodyList(PasswordDto.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(2, passwordDtos.size());
+        assertEquals("oUQl", passwordDtos.get(0).getPassword());
+        assertEquals(PasswordComplexity.WEAK.toString(), passwordDtos.get(0).getComplexity());
+        assertEquals(PasswordComplexity.VERY_STRONG.toString(), passwordDtos.get(1).getComplexity());
+    }
+
+    @Test
+    void verifyPasswordsShouldAcceptNewlineDelimitedJson() {
+        List<PasswordDto> passwordDtos = webTestClient.post()
+                .uri("/password-api/verification")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("\"oUQl\"\n\"djvkcdl\"\n")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .returnResult(PasswordDto.class)
+                .getResponseBody().collectList().block();
+
+        assertEquals(2, passwordDtos.size());
+        assertEquals("oUQl", passwordDtos.get(0).getPassword());
+        assertEquals("djvkcdl", passwordDtos.get(1).getPassword());
+        assertEquals(PasswordComplexity.WEAK.toString(), passwordDtos.get(0).getComplexity());
+    }
+
+    @Test
+    void verifyPasswordsWithInvalidEntryShouldReturnUnacceptableValuesOfParametersException() {
+        ErrorResponse errorResponse = webTestClient.post()
+                .uri("/password-api/verification")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[\"oUQl\", 17]")
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody(ErrorResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("Password at position 1 must be a string", errorResponse.getMessage());
+    }
+
+    @Test
+    void removePasswordThatDoesNotExistsInDatabase() {
+        ErrorResponse errorResponse = webTestClient.delete()
+                .uri("/password-api/removal/HQBZ")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("NOT_FOUND", errorResponse.getError());
+        assertEquals("Password not found", errorResponse.getMessage());
+    }
+
+    private void savePassword(String value, String complexity, LocalDateTime created) {
+        Password password = new Password(value, complexity, created);
+        password.setDigest(passwordDigester.digest(value));
+        passwordRepository.save(password);
+    }
+}
@@ -0,0 +1,132 @@
+package com.kacper.passwordapi.interceptor;
+
+import com.kacper.passwordapi.config.AdmissionProperties;
+import com.kacper.passwordapi.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    private AdmissionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setClientKeyHeader(CLIENT_HEADER);
+        properties.setBucketCapacity(1000);
+        properties.setRefillRate(10);
+        properties.setMaxConcurrentRequests(2);
+    }
+
+    @Test
+    void requestsShouldBeWeightedByNumberOfPasswords() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        admit(interceptor, request("a", "600"));
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> admit(interceptor, request("a", "600")));
+
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ofSeconds(19)) > 0);
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ofSeconds(20)) <= 0);
+        admit(interceptor, request("a", "300"));
+    }
+
+    @Test
+    void clientsShouldHaveSeparateBuckets() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        admit(interceptor, request("a", "1000"));
+
+        assertThrows(TooManyRequestsException.class, () -> admit(interceptor, request("a", "1")));
+        admit(interceptor, request("b", "1000"));
+        admit(interceptor, request(null, "1000"));
+    }
+
+    @Test
+    void requestLargerThanBucketShouldTakeWholeBucket() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        admit(interceptor, request("a", "100000000"));
+
+        assertThrows(TooManyRequestsException.class, () -> admit(interceptor, request("a", "1")));
+    }
+
+    @Test
+    void concurrentRequestsAboveLimitShouldBeRejectedUntilOneCompletes() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+        MockHttpServletRequest first = request("a", "1");
+        interceptor.preHandle(first, new MockHttpServletResponse(), null);
+        interceptor.preHandle(request("b", "1"), new MockHttpServletResponse(), null);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(request("c", "1"), new MockHttpServletResponse(), null));
+
+        assertEquals(properties.getConcurrencyRetryAfter(), exception.getRetryAfter());
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(request("c", "1"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void asyncDispatchShouldKeepPermitOfOriginalRequest() throws Exception {
+        properties.setMaxConcurrentRequests(1);
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+        MockHttpServletRequest request = request("a", "1000");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        interceptor.afterConcurrentHandlingStarted(request, new MockHttpServletResponse(), null);
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(request("b", "1"), new MockHttpServletResponse(), null));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+
+        assertTrue(interceptor.preHandle(request("b", "1"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void disabledAdmissionControlShouldAdmitEverything() {
+        properties.setEnabled(false);
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        for(int i = 0; i < 10; i++){
+            assertTrue(interceptor.preHandle(request("a", "1000"), new MockHttpServletResponse(), null));
+        }
+    }
+
+    @Test
+    void fullBucketsShouldBeEvicted() {
+        properties.setRefillRate(1_000_000_000);
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        interceptor.bindTo(meterRegistry);
+        admit(interceptor, request("a", "1"));
+        admit(interceptor, request("b", "1"));
+        assertEquals(2, meterRegistry.get("password.admission.clients").gauge().value());
+
+        interceptor.evictIdleClients();
+
+        assertEquals(0, meterRegistry.get("password.admission.clients").gauge().value());
+        assertEquals(2, meterRegistry.get("password.admission.admitted").functionCounter().count());
+    }
+
+    private static void admit(AdmissionControlInterceptor interceptor, MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request, response, null));
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    private static MockHttpServletRequest request(String client, String passwords) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/password-api/passwords");
+        if(client != null){
+            request.addHeader(CLIENT_HEADER, client);
+        }
+        request.setParameter("passwords", passwords);
+        return request;
+    }
+}
@@ -0,0 +1,80 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.config.BreachCorpusProperties;
+import com.kacper.passwordapi.tool.BreachCorpusImporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachedPasswordCorpusTest {
+
+    @TempDir
+    private Path directory;
+
+    private BreachedPasswordCorpus breachedPasswordCorpus;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+        TreeSet<String> hashes = new TreeSet<>();
+        for(int i = 0; i < 100_000; i++){
+            hashes.add(HexFormat.of().withUpperCase().formatHex(sha1.digest(("breached" + i).getBytes(StandardCharsets.UTF_8))) + ":" + (i + 1));
+        }
+        Path dump = Files.write(directory.resolve("dump.txt"), hashes);
+        Path corpus = directory.resolve("corpus.bin");
+
+        assertEquals(100_000, BreachCorpusImporter.importCorpus(dump, corpus));
+
+        BreachCorpusProperties properties = new BreachCorpusProperties();
+        properties.setPath(corpus);
+        breachedPasswordCorpus = new BreachedPasswordCorpus(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        breachedPasswordCorpus.close();
+    }
+
+    @Test
+    void corpusShouldContainEveryImportedPassword() {
+        assertEquals(100_000, breachedPasswordCorpus.size());
+        for(int i = 0; i < 100_000; i++){
+            assertTrue(breachedPasswordCorpus.contains("breached" + i));
+        }
+    }
+
+    @Test
+    void corpusShouldNotContainOtherPasswords() {
+        for(int i = 0; i < 100_000; i++){
+            assertFalse(breachedPasswordCorpus.contains("safe" + i));
+        }
+    }
+
+    @Test
+    void importerShouldRejectUnsortedDump() throws Exception {
+        Path dump = Files.write(directory.resolve("unsorted.txt"), List.of(
+                "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:1",
+                "0000000000000000000000000000000000000000:1"));
+
+        assertThrows(IllegalArgumentException.class, () -> BreachCorpusImporter.importCorpus(dump, directory.resolve("unsorted.bin")));
+    }
+
+    @Test
+    void disabledCorpusShouldNotContainAnyPassword() {
+        BreachedPasswordCorpus disabledCorpus = new BreachedPasswordCorpus(new BreachCorpusProperties());
+
+        assertFalse(disabledCorpus.isEnabled());
+        assertFalse(disabledCorpus.contains("breached0"));
+    }
+}
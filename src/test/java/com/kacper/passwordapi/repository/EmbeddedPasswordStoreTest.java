@@ -0,0 +1,167 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.config.StorageProperties;
+import com.kacper.passwordapi.entity.Password;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedPasswordStoreTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedPasswordStore embeddedPasswordStore;
+
+    @BeforeEach
+    void setUp() {
+        embeddedPasswordStore = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        embeddedPasswordStore.close();
+    }
+
+    private EmbeddedPasswordStore open() {
+        StorageProperties.Embedded properties = new StorageProperties.Embedded();
+        properties.setDirectory(directory);
+        properties.setInitialSize(DataSize.ofKilobytes(4));
+        return new EmbeddedPasswordStore(properties);
+    }
+
+    private EmbeddedPasswordStore reopen() {
+        embeddedPasswordStore.close();
+        embeddedPasswordStore = open();
+        return embeddedPasswordStore;
+    }
+
+    @Test
+    void storedPasswordsShouldSurviveRestart() {
+        embeddedPasswordStore.upsertAll(newPasswords(1000));
+        embeddedPasswordStore.upsertAll(List.of(newPassword("password1"), newPassword("password1")));
+        embeddedPasswordStore.deleteByDigestAndPassword(null, "password2");
+
+        reopen();
+
+        assertEquals(999, embeddedPasswordStore.count());
+        Password password = embeddedPasswordStore.findByDigestAndPassword(null, "password1").get(0);
+        assertEquals(3, password.getOccurrences());
+        assertEquals("STRONG", password.getComplexity());
+        assertEquals(CREATED, password.getCreated());
+        assertArrayEquals(new byte[]{1, 2, 3}, password.getDigest());
+        assertTrue(embeddedPasswordStore.findByDigestAndPassword(null, "password2").isEmpty());
+    }
+
+    @Test
+    void tornRecordShouldBeDiscardedOnRecovery() throws IOException {
+        embeddedPasswordStore.upsertAll(newPasswords(10));
+        embeddedPasswordStore.upsertAll(List.of(newPassword("torn")));
+        embeddedPasswordStore.close();
+        Path log = directory.resolve("passwords-0.log");
+        try(FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            int offset = 0;
+            int lastRecord = 0;
+            ByteBuffer length = ByteBuffer.allocate(4);
+            while(true){
+                channel.read(length.clear(), offset);
+                if(length.getInt(0) == 0){
+                    break;
+                }
+                lastRecord = offset;
+                offset += PasswordLog.HEADER_SIZE + length.getInt(0);
+            }
+            channel.write(ByteBuffer.wrap(new byte[]{42}), lastRecord + PasswordLog.HEADER_SIZE + 4);
+        }
+
+        embeddedPasswordStore = open();
+
+        assertEquals(10, embeddedPasswordStore.count());
+        assertTrue(embeddedPasswordStore.findByDigestAndPassword(null, "torn").isEmpty());
+        embeddedPasswordStore.upsertAll(List.of(newPassword("after")));
+        assertEquals(1, reopen().findByDigestAndPassword(null, "after").size());
+    }
+
+    @Test
+    void insertingExistingPasswordShouldFailWithoutStoringAnything() {
+        embeddedPasswordStore.upsertAll(List.of(newPassword("existing")));
+
+        assertThrows(DuplicateKeyException.class, () -> embeddedPasswordStore.insertAll(List.of(newPassword("new"), newPassword("existing"))));
+
+        assertEquals(Set.of("existing"), embeddedPasswordStore.findExistingPasswords(List.of(), List.of("new", "existing")));
+    }
+
+    @Test
+    void compactionShouldKeepOnlyLivePasswords() throws Exception {
+        embeddedPasswordStore.upsertAll(newPasswords(2000));
+        for(int i = 0; i < 1500; i++){
+            embeddedPasswordStore.deleteByDigestAndPassword(null, "password" + i);
+        }
+        CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> {
+            for(int i = 0; i < 1000; i++){
+                embeddedPasswordStore.upsertAll(List.of(newPassword("concurrent" + i)));
+                embeddedPasswordStore.deleteByDigestAndPassword(null, "password" + (1500 + i / 4));
+            }
+        });
+
+        embeddedPasswordStore.compact();
+        writes.get();
+        embeddedPasswordStore.compact();
+
+        assertFalse(Files.exists(directory.resolve("passwords-0.log")));
+        assertTrue(Files.exists(directory.resolve("passwords-2.log")));
+        Set<String> passwords = new HashSet<>();
+        reopen().forEachPassword(passwords::add);
+        assertEquals(1250, passwords.size());
+        assertTrue(passwords.contains("concurrent999"));
+        assertTrue(passwords.contains("password1750"));
+        assertFalse(passwords.contains("password1749"));
+    }
+
+    @Test
+    void filteredRemovalShouldOnlyRemoveMatchingPasswords() {
+        embeddedPasswordStore.upsertAll(newPasswords(250));
+        Password weak = new Password("weak", "WEAK", CREATED);
+        embeddedPasswordStore.upsertAll(List.of(weak));
+
+        long removed = embeddedPasswordStore.deleteAll("STRONG", CREATED.plusDays(1), 100);
+
+        assertEquals(250, removed);
+        assertEquals(1, embeddedPasswordStore.count());
+        assertEquals(0, reopen().deleteAll("STRONG", null, 100));
+    }
+
+    private static List<Password> newPasswords(int count) {
+        List<Password> passwords = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            passwords.add(newPassword("password" + i));
+        }
+        return passwords;
+    }
+
+    private static Password newPassword(String text) {
+        Password password = new Password(text, "STRONG", CREATED);
+        password.setDigest(new byte[]{1, 2, 3});
+        return password;
+    }
+}
@@ -0,0 +1,100 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(value = "/clean_database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class PasswordJdbcRepositoryTest {
+
+    private static final LocalDateTime FIRST_SEEN = LocalDateTime.of(2023, 1, 1, 12, 0);
+    private static final LocalDateTime LAST_SEEN = LocalDateTime.of(2023, 2, 1, 12, 0);
+
+    @Autowired
+    private PasswordJdbcRepository passwordJdbcRepository;
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void upsertShouldCountOccurrencesInsteadOfAddingRows() {
+        passwordJdbcRepository.upsertAll(List.of(newPassword("oPqfGXX", 1, FIRST_SEEN)));
+        passwordJdbcRepository.upsertAll(List.of(newPassword("oPqfGXX", 1, LAST_SEEN)));
+
+        List<Password> passwords = passwordRepository.findAll();
+
+        assertEquals(1, passwords.size());
+        assertEquals(2, passwords.get(0).getOccurrences());
+        assertEquals(FIRST_SEEN, passwords.get(0).getCreated());
+        assertEquals(LAST_SEEN, passwords.get(0).getLastSeen());
+    }
+
+    @Test
+    void upsertShouldAggregateDuplicatesWithinBatch() {
+        passwordJdbcRepository.upsertAll(List.of(newPassword("oPqfGXX", 1, FIRST_SEEN), newPassword("@fH%$olGVzq", 2, FIRST_SEEN), newPassword("oPqfGXX", 1, LAST_SEEN)));
+
+        assertEquals(2, passwordRepository.count());
+        for(Password password : passwordRepository.findAll()){
+            assertEquals(2, password.getOccurrences());
+        }
+    }
+
+    @Test
+    void insertShouldFailOnExistingPassword() {
+        passwordJdbcRepository.insertAll(List.of(newPassword("oPqfGXX", 1, FIRST_SEEN)));
+
+        assertThrows(DuplicateKeyException.class, () -> passwordJdbcRepository.insertAll(List.of(newPassword("oPqfGXX", 1, LAST_SEEN))));
+        assertEquals(1, passwordRepository.count());
+    }
+
+    @Test
+    void rowsWithoutDigestShouldOnlyBeFoundUntilDigestsAreBackfilled() {
+        PasswordJdbcRepository repository = new PasswordJdbcRepository(jdbcTemplate);
+        passwordRepository.save(new Password("oPqfGXX", "MEDIUM", FIRST_SEEN));
+        byte[] digest = "oPqfGXX".getBytes();
+
+        assertEquals(1, repository.findByDigestAndPassword(digest, "oPqfGXX").size());
+
+        repository.markDigestsBackfilled();
+
+        assertTrue(repository.findByDigestAndPassword(digest, "oPqfGXX").isEmpty());
+        assertTrue(repository.findExistingPasswords(List.of(digest), List.of("oPqfGXX")).isEmpty());
+        assertNull(repository.deleteByDigestAndPassword(digest, "oPqfGXX"));
+        assertEquals(1, passwordRepository.count());
+    }
+
+    @Test
+    void idSequenceShouldBeMovedPastExistingRows() {
+        final long EXISTING_ID = 1_000_000_000L;
+        jdbcTemplate.update("insert into password (id, created, password, complexity, digest, occurrences, last_seen) values (?, ?, ?, ?, ?, 1, ?)",
+                EXISTING_ID, FIRST_SEEN, "oPqfGXX", "MEDIUM", "oPqfGXX".getBytes(), FIRST_SEEN);
+        PasswordJdbcRepository repository = new PasswordJdbcRepository(jdbcTemplate);
+
+        repository.alignIdSequence();
+        repository.insertAll(List.of(newPassword("@fH%$olGVzq", 1, FIRST_SEEN)));
+
+        assertFalse(repository.alignIdSequence());
+        assertEquals(2, passwordRepository.count());
+        assertTrue(repository.findByDigestAndPassword("@fH%$olGVzq".getBytes(), "@fH%$olGVzq").get(0).getId() > EXISTING_ID);
+    }
+
+    private static Password newPassword(String value, long occurrences, LocalDateTime seen) {
+        Password password = new Password(value, "MEDIUM", seen);
+        password.setDigest(value.getBytes());
+        password.setOccurrences(occurrences);
+        return password;
+    }
+}
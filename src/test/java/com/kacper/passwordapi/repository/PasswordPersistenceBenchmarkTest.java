@@ -0,0 +1,77 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Sql(value = "/clean_database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class PasswordPersistenceBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private PasswordJdbcRepository passwordJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 1000})
+    void compareRowByRowBatchedAndUpsertedInserts(int numberOfPasswords) {
+        double rowByRowMillis = measure(() -> {
+            for(Password password : newPasswords(numberOfPasswords)){
+                passwordRepository.saveAndFlush(password);
+            }
+        });
+        double batchedMillis = measure(() -> passwordRepository.saveAll(newPasswords(numberOfPasswords)));
+        double upsertedMillis = measure(() -> passwordJdbcRepository.upsertAll(newPasswords(numberOfPasswords)));
+
+        log.info("passwords={} row-by-row={} ms batched={} ms upserted={} ms speedup={}x", numberOfPasswords,
+                "%.3f".formatted(rowByRowMillis), "%.3f".formatted(batchedMillis), "%.3f".formatted(upsertedMillis), "%.2f".formatted(rowByRowMillis / upsertedMillis));
+
+        assertEquals(3L * (WARMUP_ROUNDS + MEASURED_ROUNDS) * numberOfPasswords, passwordRepository.count());
+    }
+
+    private double measure(Runnable insert) {
+        for(int i = 0; i < WARMUP_ROUNDS; i++){
+            transactionTemplate.executeWithoutResult(status -> insert.run());
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < MEASURED_ROUNDS; i++){
+            transactionTemplate.executeWithoutResult(status -> insert.run());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    private static List<Password> newPasswords(int numberOfPasswords) {
+        List<Password> passwords = new ArrayList<>(numberOfPasswords);
+        for(int i = 0; i < numberOfPasswords; i++){
+            UUID uuid = UUID.randomUUID();
+            Password password = new Password(uuid.toString().substring(0, 16), "MEDIUM", LocalDateTime.now());
+            password.setDigest(ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array());
+            passwords.add(password);
+        }
+        return passwords;
+    }
+}
@@ -0,0 +1,186 @@
+package com.kacper.passwordapi.repository;
+
+import com.kacper.passwordapi.entity.Password;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPasswordRepositoryTest {
+
+    private static final int SHARDS = 3;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+    private ShardedPasswordRepository shardedPasswordRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<PasswordJdbcRepository> shards = new ArrayList<>();
+        for(int i = 0; i < SHARDS; i++){
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("db/shard-schema.sql")
+                    .build();
+            databases.add(database);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplates.add(jdbcTemplate);
+            shards.add(new PasswordJdbcRepository(jdbcTemplate));
+        }
+        shardedPasswordRepository = new ShardedPasswordRepository(shards, List.of());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        shardedPasswordRepository.close();
+        for(EmbeddedDatabase database : databases){
+            database.shutdown();
+        }
+    }
+
+    @Test
+    void passwordsShouldBeStoredOnTheirShardOnly() {
+        List<Password> passwords = newPasswords(300);
+
+        shardedPasswordRepository.upsertAll(passwords);
+
+        int[] expectedRows = new int[SHARDS];
+        for(Password password : passwords){
+            expectedRows[shardedPasswordRepository.shardOf(password.getPassword())]++;
+        }
+        for(int shard = 0; shard < SHARDS; shard++){
+            assertTrue(expectedRows[shard] > 0);
+            assertEquals(expectedRows[shard], jdbcTemplates.get(shard).queryForObject("select count(*) from password", Integer.class));
+        }
+        assertEquals(300, shardedPasswordRepository.count());
+    }
+
+    @Test
+    void lookupsShouldMergeResultsOfAllShards() {
+        List<Password> passwords = newPasswords(100);
+        shardedPasswordRepository.upsertAll(passwords.subList(0, 50));
+
+        List<String> candidates = passwords.stream().map(Password::getPassword).toList();
+        List<byte[]> digests = passwords.stream().map(Password::getDigest).toList();
+
+        Set<String> existing = shardedPasswordRepository.findExistingPasswords(digests, candidates);
+        List<Password> found = shardedPasswordRepository.findAllByDigestsAndPasswords(digests, candidates);
+
+        assertEquals(new HashSet<>(candidates.subList(0, 50)), existing);
+        assertEquals(50, found.size());
+        assertEquals(1, shardedPasswordRepository.findByDigestAndPassword(digests.get(0), candidates.get(0)).size());
+        assertTrue(shardedPasswordRepository.findByDigestAndPassword(digests.get(99), candidates.get(99)).isEmpty());
+    }
+
+    @Test
+    void repeatedPasswordsShouldBeCountedOnTheirShard() {
+        List<Password> passwords = newPasswords(20);
+        shardedPasswordRepository.upsertAll(passwords);
+        shardedPasswordRepository.upsertAll(newPasswords(20));
+
+        for(Password password : passwords){
+            List<Password> stored = shardedPasswordRepository.findByDigestAndPassword(password.getDigest(), password.getPassword());
+            assertEquals(1, stored.size());
+            assertEquals(2, stored.get(0).getOccurrences());
+        }
+        assertEquals(20, shardedPasswordRepository.count());
+    }
+
+    @Test
+    void removalShouldReachEveryShard() {
+        List<Password> passwords = newPasswords(100);
+        shardedPasswordRepository.upsertAll(passwords);
+
+        Password removed = shardedPasswordRepository.deleteByDigestAndPassword(passwords.get(0).getDigest(), passwords.get(0).getPassword());
+        List<String> removedListed = shardedPasswordRepository.deleteAllByDigestsAndPasswords(
+                passwords.subList(1, 10).stream().map(Password::getDigest).toList(),
+                passwords.subList(1, 10).stream().map(Password::getPassword).toList());
+        long removedFiltered = shardedPasswordRepository.deleteAll("MEDIUM", CREATED.plusSeconds(1), 7);
+
+        assertEquals(passwords.get(0).getPassword(), removed.getPassword());
+        assertEquals(9, removedListed.size());
+        assertEquals(90, removedFiltered);
+        assertEquals(0, shardedPasswordRepository.count());
+    }
+
+    @Test
+    void everyPasswordShouldBeVisited() {
+        shardedPasswordRepository.upsertAll(newPasswords(100));
+
+        Set<String> visited = new HashSet<>();
+        shardedPasswordRepository.forEachPassword(visited::add);
+
+        assertEquals(100, visited.size());
+    }
+
+    @Test
+    void conflictOnOneShardShouldRollBackInsertsOnTheOthers() {
+        List<Password> passwords = newPasswords(30);
+        Password existing = passwords.get(0);
+        shardedPasswordRepository.insertAll(List.of(existing));
+        int conflictingShard = shardedPasswordRepository.shardOf(existing.getPassword());
+
+        assertThrows(DuplicateKeyException.class, () -> shardedPasswordRepository.insertAll(newPasswords(30)));
+
+        for(int shard = 0; shard < SHARDS; shard++){
+            int expectedRows = shard == conflictingShard ? 1 : 0;
+            assertEquals(expectedRows, jdbcTemplates.get(shard).queryForObject("select count(*) from password", Integer.class));
+        }
+    }
+
+    @Test
+    void failedUpsertShouldNotCountOccurrencesOnOtherShards() {
+        List<Password> passwords = newPasswords(30);
+        shardedPasswordRepository.upsertAll(passwords);
+        int brokenShard = shardedPasswordRepository.shardOf(passwords.get(0).getPassword());
+        jdbcTemplates.get(brokenShard).execute("alter table password rename to password_broken");
+
+        assertThrows(DataAccessException.class, () -> shardedPasswordRepository.upsertAll(newPasswords(30)));
+
+        jdbcTemplates.get(brokenShard).execute("alter table password_broken rename to password");
+        for(Password password : passwords){
+            assertEquals(1, shardedPasswordRepository.findByDigestAndPassword(password.getDigest(), password.getPassword()).get(0).getOccurrences());
+        }
+    }
+
+    @Test
+    void singleShardShouldStoreAndInsertPasswords() throws Exception {
+        try(ShardedPasswordRepository singleShard = new ShardedPasswordRepository(List.of(new PasswordJdbcRepository(jdbcTemplates.get(0))), List.of())){
+            List<Password> passwords = newPasswords(10);
+
+            singleShard.upsertAll(passwords.subList(0, 5));
+            singleShard.insertAll(passwords.subList(5, 10));
+            singleShard.upsertAll(List.of());
+
+            assertEquals(10, singleShard.count());
+            assertEquals(10, jdbcTemplates.get(0).queryForObject("select count(*) from password", Integer.class));
+        }
+    }
+
+    private static List<Password> newPasswords(int numberOfPasswords){
+        List<Password> passwords = new ArrayList<>(numberOfPasswords);
+        for(int i = 0; i < numberOfPasswords; i++){
+            String value = "password-" + i;
+            Password password = new Password(value, "MEDIUM", CREATED);
+            password.setDigest(Arrays.copyOf(value.getBytes(), 16));
+            passwords.add(password);
+        }
+        return passwords;
+    }
+}
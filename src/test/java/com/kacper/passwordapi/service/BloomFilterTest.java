@@ -0,0 +1,97 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.BloomFilterProperties;
+import com.kacper.passwordapi.repository.PasswordStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void bloomFilterShouldContainEveryInsertedPassword() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01, 1024 * 1024);
+        String[] passwords = new String[10_000];
+        for(int i = 0; i < passwords.length; i++){
+            passwords[i] = UUID.randomUUID().toString();
+            bloomFilter.put(passwords[i]);
+        }
+
+        for(String password : passwords){
+            assertTrue(bloomFilter.mightContain(password));
+        }
+        assertEquals(10_000, bloomFilter.insertions());
+    }
+
+    @Test
+    void bloomFilterShouldKeepFalsePositiveRateCloseToConfiguredOne() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01, 1024 * 1024);
+        for(int i = 0; i < 10_000; i++){
+            bloomFilter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for(int i = 0; i < 100_000; i++){
+            if(bloomFilter.mightContain(UUID.randomUUID().toString())){
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000);
+        assertTrue(bloomFilter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void passwordsAddedWhileRebuildingShouldNotBeLost() throws Exception {
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        PasswordStore passwordStore = Mockito.mock(PasswordStore.class);
+        Mockito.when(passwordStore.count()).thenAnswer(invocation -> (long) stored.size());
+        Mockito.doAnswer(invocation -> {
+            Consumer<String> action = invocation.getArgument(0);
+            stored.forEach(action);
+            return null;
+        }).when(passwordStore).forEachPassword(Mockito.any());
+        BloomFilterProperties properties = new BloomFilterProperties();
+        properties.setEnabled(true);
+        properties.setMinExpectedInsertions(100_000);
+        PasswordBloomFilter passwordBloomFilter = new PasswordBloomFilter(passwordStore, properties);
+        passwordBloomFilter.rebuild();
+        AtomicBoolean adding = new AtomicBoolean(true);
+        Thread rebuilder = new Thread(() -> {
+            while(adding.get()){
+                passwordBloomFilter.rebuild();
+            }
+        });
+
+        rebuilder.start();
+        List<String> added = new ArrayList<>();
+        for(int i = 0; i < 20_000; i++){
+            String password = UUID.randomUUID().toString();
+            stored.add(password);
+            passwordBloomFilter.putAll(List.of(password));
+            added.add(password);
+        }
+        adding.set(false);
+        rebuilder.join();
+
+        for(String password : added){
+            assertTrue(passwordBloomFilter.mightContain(password));
+        }
+    }
+
+    @Test
+    void bloomFilterShouldNotExceedMemoryLimit() {
+        BloomFilter bloomFilter = new BloomFilter(100_000_000, 0.01, 1024);
+
+        assertEquals(1024, bloomFilter.memoryBytes());
+    }
+}
@@ -0,0 +1,23 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.StorageProperties;
+import com.kacper.passwordapi.repository.EmbeddedPasswordStore;
+import com.kacper.passwordapi.repository.PasswordStore;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+class EmbeddedPasswordServiceTest extends PasswordServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected PasswordStore createPasswordStore() {
+        StorageProperties.Embedded properties = new StorageProperties.Embedded();
+        properties.setDirectory(directory);
+        properties.setInitialSize(DataSize.ofMegabytes(1));
+        return new EmbeddedPasswordStore(properties);
+    }
+}
@@ -0,0 +1,32 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.repository.PasswordJdbcRepository;
+import com.kacper.passwordapi.repository.PasswordStore;
+import com.kacper.passwordapi.repository.ShardedPasswordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+class JdbcPasswordServiceTest extends PasswordServiceTest {
+
+    private EmbeddedDatabase database;
+
+    @Override
+    protected PasswordStore createPasswordStore() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/shard-schema.sql")
+                .build();
+        return new ShardedPasswordRepository(List.of(new PasswordJdbcRepository(new JdbcTemplate(database))), List.of());
+    }
+
+    @AfterEach
+    void shutdownDatabase() {
+        database.shutdown();
+    }
+}
@@ -0,0 +1,94 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.DigestProperties;
+import com.kacper.passwordapi.config.GenerationProperties;
+import com.kacper.passwordapi.config.PoolProperties;
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordBatchGeneratorTest {
+
+    private PasswordDigester passwordDigester;
+    private PasswordGenerationEngine passwordGenerationEngine;
+    private GenerationProperties generationProperties;
+    private PasswordPool passwordPool;
+    private PasswordBatchGenerator passwordBatchGenerator;
+
+    @BeforeEach
+    void setUp() {
+        DigestProperties digestProperties = new DigestProperties();
+        digestProperties.setKey("test-key");
+        generationProperties = new GenerationProperties();
+        generationProperties.setParallelThreshold(100);
+        generationProperties.setParallelism(4);
+        passwordDigester = new PasswordDigester(digestProperties);
+        passwordGenerationEngine = new PasswordGenerationEngine();
+        passwordPool = new PasswordPool(passwordGenerationEngine, passwordDigester, new PoolProperties());
+        passwordBatchGenerator = new PasswordBatchGenerator(passwordGenerationEngine, passwordDigester, generationProperties, new PasswordMetrics(new SimpleMeterRegistry()), passwordPool);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        passwordBatchGenerator.shutdown();
+        passwordPool.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 99, 100, 1000})
+    void batchShouldBeFullyGeneratedSequentiallyAndInParallel(int numberOfPasswords) {
+        GeneratedPasswordBatch batch = passwordBatchGenerator.generate(17, true, true, true, numberOfPasswords);
+
+        assertEquals(numberOfPasswords, batch.size());
+        for(int i = 0; i < batch.size(); i++){
+            assertEquals(17, batch.getPassword(i).length());
+            assertEquals(PasswordComplexity.VERY_STRONG, batch.getComplexity(i));
+            assertArrayEquals(passwordDigester.digest(batch.getPassword(i)), batch.getDigest(i));
+            assertFalse(batch.isAlreadyExisting(i));
+        }
+    }
+
+    @Test
+    void pooledPasswordsShouldBeServedBeforeInlineGeneration() throws InterruptedException {
+        PoolProperties poolProperties = new PoolProperties();
+        poolProperties.setEnabled(true);
+        poolProperties.setDepth(64);
+        PoolProperties.Profile profile = new PoolProperties.Profile();
+        profile.setLength(17);
+        poolProperties.setProfiles(List.of(profile));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        passwordPool = new PasswordPool(passwordGenerationEngine, passwordDigester, poolProperties);
+        passwordPool.bindTo(registry);
+        passwordPool.start();
+        passwordBatchGenerator.shutdown();
+        passwordBatchGenerator = new PasswordBatchGenerator(passwordGenerationEngine, passwordDigester, generationProperties, new PasswordMetrics(registry), passwordPool);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(registry.get("password.pool.size").gauge().value() < 64 && System.nanoTime() < deadline){
+            Thread.sleep(10);
+        }
+        passwordPool.shutdown();
+        GeneratedPasswordBatch batch = passwordBatchGenerator.generate(17, true, true, true, 100);
+
+        Set<String> passwords = new HashSet<>(batch.getPasswords());
+        assertEquals(100, passwords.size());
+        for(int i = 0; i < batch.size(); i++){
+            assertEquals(17, batch.getPassword(i).length());
+            assertEquals(PasswordComplexity.VERY_STRONG, batch.getComplexity(i));
+            assertArrayEquals(passwordDigester.digest(batch.getPassword(i)), batch.getDigest(i));
+        }
+        assertEquals(64, registry.get("password.pool.hits").functionCounter().count());
+        assertEquals(36, registry.get("password.pool.misses").functionCounter().count());
+    }
+}
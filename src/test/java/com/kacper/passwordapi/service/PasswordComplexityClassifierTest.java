@@ -0,0 +1,63 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.enums.PasswordComplexity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PasswordComplexityClassifierTest {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"
+            + PasswordComplexityClassifier.SPECIAL_CHARACTERS
+            + " \t\"\\\n\r\u0085\u2028\u2029\u00E9\u00DF\u0104\u20AC\uD83D\uDE00";
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 42L, 2023L, 7_777_777L})
+    void classifierShouldAgreeWithRegexClassifierOnRandomPasswords(long seed) {
+        Random random = new Random(seed);
+        for(int i = 0; i < 50_000; i++){
+            String password = randomPassword(random);
+
+            assertEquals(classifyWithRegex(password), PasswordComplexityClassifier.classify(password), () -> "Password: " + password);
+        }
+    }
+
+    @Test
+    void classifierShouldIgnoreCharacterClassesWhenLineTerminatorPresent() {
+        final String PASSWORD = "Q{cRb]l=xo+^v&TOvn\n";
+
+        assertEquals(classifyWithRegex(PASSWORD), PasswordComplexityClassifier.classify(PASSWORD));
+        assertEquals(PasswordComplexity.MEDIUM, PasswordComplexityClassifier.classify(PASSWORD));
+    }
+
+    private static String randomPassword(Random random) {
+        int length = random.nextInt(41);
+        int alphabetSize = 1 + random.nextInt(ALPHABET.length());
+        int alphabetOffset = random.nextInt(ALPHABET.length() - alphabetSize + 1);
+        StringBuilder password = new StringBuilder(length);
+        for(int i = 0; i < length; i++){
+            password.append(ALPHABET.charAt(alphabetOffset + random.nextInt(alphabetSize)));
+        }
+        return password.toString();
+    }
+
+    private static PasswordComplexity classifyWithRegex(String password) {
+        int passwordLength = password.length();
+        boolean specialCharactersPresence = password.matches(".*[!@#$%^&*()\\-_=+\\[\\]{}|?/<>,.;:'`~].*");
+        boolean lowerCasePresence = password.matches(".*[a-z].*");
+        boolean capitalCasePresence = password.matches(".*[A-Z].*");
+        if (passwordLength > 16 && specialCharactersPresence && lowerCasePresence && capitalCasePresence) {
+            return PasswordComplexity.VERY_STRONG;
+        } else if(passwordLength > 8 && specialCharactersPresence && lowerCasePresence && capitalCasePresence) {
+            return PasswordComplexity.STRONG;
+        } else if(passwordLength > 5 && !specialCharactersPresence){
+            return PasswordComplexity.MEDIUM;
+        } else {
+            return PasswordComplexity.WEAK;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.kacper.passwordapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordGenerationEngineTest {
+
+    private final PasswordGenerationEngine passwordGenerationEngine = new PasswordGenerationEngine();
+
+    @Test
+    void planShouldBeCompiledOncePerParameters() {
+        PasswordGenerationPlan plan = passwordGenerationEngine.plan(16, true, true, true);
+
+        assertSame(plan, passwordGenerationEngine.plan(16, true, true, true));
+        assertNotSame(plan, passwordGenerationEngine.plan(16, true, true, false));
+    }
+
+    @Test
+    void generatedPasswordsShouldContainEverySelectedCharacterClass() {
+        PasswordGenerationPlan plan = passwordGenerationEngine.plan(3, true, true, true);
+
+        for(int i = 0; i < 10_000; i++){
+            String password = passwordGenerationEngine.generate(plan);
+
+            assertEquals(3, password.length());
+            assertTrue(password.matches(".*[a-z].*"));
+            assertTrue(password.matches(".*[A-Z].*"));
+            assertTrue(password.matches(".*[!@#$%^&*()\\-_=+\\[\\]{}|?/<>,.;:'`~].*"));
+        }
+    }
+
+    @Test
+    void generatedPasswordsShouldContainOnlySelectedCharacterClasses() {
+        PasswordGenerationPlan plan = passwordGenerationEngine.plan(32, false, false, true);
+
+        for(int i = 0; i < 1_000; i++){
+            assertTrue(passwordGenerationEngine.generate(plan).matches("[A-Z]{32}"));
+        }
+    }
+
+    @Test
+    void planShouldRejectLengthShorterThanRequiredCharacterClasses() {
+        assertThrows(IllegalArgumentException.class, () -> passwordGenerationEngine.plan(2, true, true, true));
+    }
+}
@@ -0,0 +1,97 @@
+package com.kacper.passwordapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordRingBufferTest {
+
+    @Test
+    void capacityShouldBeRoundedUpToPowerOfTwo() {
+        assertEquals(2, new PasswordRingBuffer<String>(2).capacity());
+        assertEquals(8, new PasswordRingBuffer<String>(5).capacity());
+        assertEquals(4096, new PasswordRingBuffer<String>(4096).capacity());
+    }
+
+    @Test
+    void elementsShouldBePolledInOfferOrderUntilEmpty() {
+        PasswordRingBuffer<String> buffer = new PasswordRingBuffer<>(4);
+
+        for(int lap = 0; lap < 3; lap++){
+            assertTrue(buffer.offer("a"));
+            assertTrue(buffer.offer("b"));
+            assertTrue(buffer.offer("c"));
+            assertTrue(buffer.offer("d"));
+            assertFalse(buffer.offer("e"));
+            assertEquals(4, buffer.size());
+
+            assertEquals("a", buffer.poll());
+            assertEquals("b", buffer.poll());
+            assertEquals("c", buffer.poll());
+            assertEquals("d", buffer.poll());
+            assertNull(buffer.poll());
+            assertEquals(0, buffer.size());
+        }
+    }
+
+    @Test
+    void concurrentProducersAndConsumersShouldNeitherLoseNorDuplicateElements() throws Exception {
+        final int PRODUCERS = 4;
+        final int CONSUMERS = 4;
+        final int ELEMENTS_PER_PRODUCER = 100_000;
+        PasswordRingBuffer<Integer> buffer = new PasswordRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + CONSUMERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger consumed = new AtomicInteger();
+        ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for(int producer = 0; producer < PRODUCERS; producer++){
+                int offset = producer * ELEMENTS_PER_PRODUCER;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for(int i = 0; i < ELEMENTS_PER_PRODUCER; i++){
+                        while(!buffer.offer(offset + i)){
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for(int consumer = 0; consumer < CONSUMERS; consumer++){
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while(consumed.get() < PRODUCERS * ELEMENTS_PER_PRODUCER){
+                        Integer element = buffer.poll();
+                        if(element == null){
+                            Thread.yield();
+                            continue;
+                        }
+                        assertNull(seen.put(element, Boolean.TRUE));
+                        consumed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for(Future<?> future : futures){
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(PRODUCERS * ELEMENTS_PER_PRODUCER, seen.size());
+        assertNull(buffer.poll());
+    }
+}
@@ -1,33 +1,104 @@
 package com.kacper.passwordapi.service;
 
+import com.kacper.passwordapi.config.BloomFilterProperties;
+import com.kacper.passwordapi.config.BreachCorpusProperties;
+import com.kacper.passwordapi.config.DigestProperties;
+import com.kacper.passwordapi.config.GenerationProperties;
+import com.kacper.passwordapi.config.PoolProperties;
+import com.kacper.passwordapi.config.RemovalProperties;
+import com.kacper.passwordapi.config.StrengthProperties;
+import com.kacper.passwordapi.config.VerificationCacheProperties;
+import com.kacper.passwordapi.config.VerificationProperties;
+import com.kacper.passwordapi.config.WriteBehindProperties;
 import com.kacper.passwordapi.dto.GeneratedPasswordDto;
 import com.kacper.passwordapi.dto.PasswordDto;
+import com.kacper.passwordapi.dto.RemovedPasswordsDto;
 import com.kacper.passwordapi.entity.Password;
 import com.kacper.passwordapi.enums.PasswordComplexity;
 import com.kacper.passwordapi.exception.NotFoundException;
+import com.kacper.passwordapi.exception.ServiceUnavailableException;
 import com.kacper.passwordapi.exception.UnacceptableValuesOfParametersException;
-import com.kacper.passwordapi.repository.PasswordRepository;
+import com.kacper.passwordapi.exception.UniquePasswordsUnavailableException;
+import com.kacper.passwordapi.repository.BreachedPasswordCorpus;
+import com.kacper.passwordapi.repository.PasswordStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
-class PasswordServiceTest {
+abstract class PasswordServiceTest {
 
     private PasswordService passwordService;
-    private PasswordRepository passwordRepository = Mockito.mock(PasswordRepository.class);
+    private PasswordStore passwordStore;
+    private PasswordDigester passwordDigester;
+    private WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+    private BreachCorpusProperties breachCorpusProperties = new BreachCorpusProperties();
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GenerationProperties generationProperties = new GenerationProperties();
+    private RemovalProperties removalProperties = new RemovalProperties();
+    private VerificationProperties verificationProperties = new VerificationProperties();
+    private List<PasswordBatchGenerator> passwordBatchGenerators = new ArrayList<>();
+
+    protected abstract PasswordStore createPasswordStore();
 
     @BeforeEach
     void setUp() {
-        passwordService = new PasswordService(passwordRepository);
+        passwordStore = Mockito.spy(createPasswordStore());
+        passwordService = createPasswordService();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        passwordBatchGenerators.forEach(PasswordBatchGenerator::shutdown);
+        passwordStore.close();
+    }
+
+    private PasswordService createPasswordService() {
+        DigestProperties digestProperties = new DigestProperties();
+        digestProperties.setKey("test-key");
+        passwordDigester = new PasswordDigester(digestProperties);
+        PasswordMetrics passwordMetrics = new PasswordMetrics(meterRegistry);
+        PasswordGenerationEngine passwordGenerationEngine = new PasswordGenerationEngine();
+        PasswordBatchGenerator passwordBatchGenerator = new PasswordBatchGenerator(passwordGenerationEngine, passwordDigester, generationProperties, passwordMetrics, new PasswordPool(passwordGenerationEngine, passwordDigester, new PoolProperties()));
+        passwordBatchGenerators.add(passwordBatchGenerator);
+        PasswordBloomFilter passwordBloomFilter = new PasswordBloomFilter(passwordStore, new BloomFilterProperties());
+        PasswordWriteBehindQueue passwordWriteBehindQueue = new PasswordWriteBehindQueue(passwordStore, passwordBloomFilter, writeBehindProperties, TransactionOperations.withoutTransaction());
+        return new PasswordService(passwordStore, passwordBloomFilter, passwordDigester, passwordBatchGenerator, passwordWriteBehindQueue, new BreachedPasswordCorpus(breachCorpusProperties), new PasswordVerificationCache(new VerificationCacheProperties()), passwordMetrics, new PasswordStrengthEstimator(new StrengthProperties()), generationProperties, removalProperties, verificationProperties, TransactionOperations.withoutTransaction());
+    }
+
+    private void store(Password password) {
+        password.setDigest(passwordDigester.digest(password.getPassword()));
+        passwordStore.upsertAll(List.of(password));
     }
 
     @Nested
@@ -41,10 +112,9 @@ class PasswordServiceTest {
 
         @Test
         void createPasswordsThatDoesNotExistInDatabase() {
-            when(passwordRepository.findFirstByPassword(any(String.class))).thenReturn(null);
-
             List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createPassword(7, false, true, true, 3);
 
+            verify(passwordStore, times(1)).findExistingPasswords(anyList(), anyList());
             assertEquals(3, generatedPasswordDtos.size());
             for(int i = 0; i < 3; i++){
                 assertEquals(7, generatedPasswordDtos.get(i).getPassword().length());
@@ -56,9 +126,16 @@ class PasswordServiceTest {
             }
         }
 
+        @Test
+        void createdPasswordsShouldBeUpsertedInOneBatch() {
+            passwordService.createPassword(12, true, true, true, 5);
+
+            verify(passwordStore, times(1)).upsertAll(argThat(passwords -> passwords.size() == 5));
+        }
+
         @Test
         void createPasswordThatAlreadyExistInDatabase() {
-            when(passwordRepository.findFirstByPassword(any(String.class))).thenReturn(new Password("yT$;CC.bfX_", "strong", LocalDateTime.now()));
+            doAnswer(invocation -> new HashSet<String>(invocation.getArgument(1))).when(passwordStore).findExistingPasswords(anyList(), anyList());
 
             List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createPassword(11, true, true, true, 2);
             assertEquals(2, generatedPasswordDtos.size());
@@ -73,6 +150,111 @@ class PasswordServiceTest {
         }
     }
 
+    @Nested
+    class WriteBehind {
+        @BeforeEach
+        void setUp() {
+            writeBehindProperties.setEnabled(true);
+            passwordService = createPasswordService();
+        }
+
+        @Test
+        void createdPasswordsShouldBeQueuedInsteadOfStored() {
+            List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createPassword(12, true, true, true, 5);
+
+            verify(passwordStore, never()).upsertAll(anyCollection());
+            assertEquals(5, generatedPasswordDtos.size());
+        }
+
+        @Test
+        void queuedPasswordsShouldBeVisibleBeforeTheyAreStored() {
+            List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createPassword(12, true, true, true, 1);
+            final String PASSWORD = generatedPasswordDtos.get(0).getPassword();
+
+            PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
+
+            assertEquals(PASSWORD, passwordDto.getPassword());
+            assertEquals(PasswordComplexity.STRONG.toString(), passwordDto.getComplexity());
+            assertNotNull(passwordDto.getCreated());
+        }
+
+        @Test
+        void fullQueueShouldNotBlockInsideTransaction() {
+            writeBehindProperties.setCapacity(2);
+            passwordService = createPasswordService();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:")));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> transactionTemplate.executeWithoutResult(status -> passwordService.createPassword(12, true, true, true, 5)));
+
+            verify(passwordStore).upsertAll(argThat(passwords -> passwords.size() == 3));
+        }
+
+        @Test
+        void removalShouldReportUnavailableWhenPasswordIsNotFlushedInTime() {
+            writeBehindProperties.setRemovalTimeout(Duration.ofMillis(50));
+            passwordService = createPasswordService();
+            String password = passwordService.createPassword(12, true, true, true, 1).get(0).getPassword();
+
+            assertThrows(ServiceUnavailableException.class, () -> passwordService.removePassword(password));
+        }
+    }
+
+    @Nested
+    class UniquePassword {
+        @Test
+        void collidingPasswordsShouldBeRegenerated() {
+            Set<String> firstCandidates = new HashSet<>();
+            doAnswer(invocation -> {
+                List<String> passwords = invocation.getArgument(1);
+                if(firstCandidates.isEmpty()){
+                    firstCandidates.addAll(passwords);
+                    return new HashSet<>(passwords);
+                }
+                return Set.of();
+            }).when(passwordStore).findExistingPasswords(anyList(), anyList());
+
+            List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createUniquePassword(14, true, true, true, 20);
+
+            verify(passwordStore, times(2)).findExistingPasswords(anyList(), anyList());
+            assertEquals(20, generatedPasswordDtos.size());
+            Set<String> returnedPasswords = new HashSet<>();
+            for(GeneratedPasswordDto generatedPasswordDto : generatedPasswordDtos){
+                assertNull(generatedPasswordDto.getPasswordAlreadyExists());
+                assertFalse(firstCandidates.contains(generatedPasswordDto.getPassword()));
+                assertTrue(returnedPasswords.add(generatedPasswordDto.getPassword()));
+            }
+        }
+
+        @Test
+        void duplicatesWithinBatchShouldBeRegenerated() {
+            List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createUniquePassword(3, false, true, false, 2000);
+
+            assertEquals(2000, generatedPasswordDtos.stream().map(GeneratedPasswordDto::getPassword).distinct().count());
+        }
+
+        @Test
+        void exhaustedRoundsShouldThrowUniquePasswordsUnavailableException() {
+            generationProperties.setUniqueMaxRounds(2);
+            doAnswer(invocation -> new HashSet<>(invocation.<List<String>>getArgument(1))).when(passwordStore).findExistingPasswords(anyList(), anyList());
+
+            Throwable exception = assertThrows(UniquePasswordsUnavailableException.class, () -> passwordService.createUniquePassword(8, false, true, false, 5));
+
+            assertEquals("Could not generate enough unique passwords with given parameters", exception.getMessage());
+            verify(passwordStore, never()).insertAll(anyCollection());
+        }
+
+        @Test
+        void conflictingConcurrentInsertShouldBeRetried() {
+            doThrow(new DuplicateKeyException("duplicate key value violates unique constraint \"password_digest_key\"")).doCallRealMethod().when(passwordStore).insertAll(anyCollection());
+
+            List<GeneratedPasswordDto> generatedPasswordDtos = passwordService.createUniquePassword(10, true, true, true, 3);
+
+            verify(passwordStore, times(2)).insertAll(anyCollection());
+            verify(passwordStore, never()).upsertAll(anyCollection());
+            assertEquals(3, generatedPasswordDtos.size());
+        }
+    }
+
     @Nested
     class VerifyPassword {
 
@@ -82,8 +264,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotVeryStrongWhenSpecialCharactersNotPresent() {
                 final String PASSWORD = "ifaDwVfLaPbiKiuEZe";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -94,8 +274,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotVeryStrongWhenCapitalLettersNotPresent() {
                 final String PASSWORD = "i!e!{b~ffl&@av,.w)";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -106,8 +284,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotVeryStrongWhenLowerLettersNotPresent() {
                 final String PASSWORD = "ILL!&AMA^=N&VT.KU+";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -118,8 +294,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotVeryStrongWhenTooShort() {
                 final String PASSWORD = "Ia@w^vnf,ww&W$";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -130,8 +304,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsVeryStrong() {
                 final String PASSWORD = "Q{cRb]l=xo+^v&TOvn";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -145,8 +317,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotStrongWhenSpecialCharactersNotPresent() {
                 final String PASSWORD = "paXaCerZnfS";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -157,8 +327,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotStrongWhenCapitalLettersNotPresent() {
                 final String PASSWORD = "%el~^wg{f'+";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -169,8 +337,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotStrongWhenLowerLettersNotPresent() {
                 final String PASSWORD = "O,%KM]FI&.R";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -181,8 +347,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotStrongWhenTooShort() {
                 final String PASSWORD = "@DcgEXo";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -193,8 +357,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsStrong() {
                 final String PASSWORD = "q%}V(Y-$Ei@";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -208,8 +370,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotMediumWhenTooShort() {
                 final String PASSWORD = "eDNRj";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -220,8 +380,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsNotMediumWhenOnlyLowerLettersPresent() {
                 final String PASSWORD = "djvkcdl";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -232,8 +390,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsMediumWhenLongAndCapitalAndLowerLettersPresent() {
                 final String PASSWORD = "AywiEdqjyWpLvNmYiVJ";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -244,8 +400,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsMediumWhenLongAndSpecialCharactersAndLowerLettersPresent() {
                 final String PASSWORD = "]djt(xoa{q_xzs!el=)";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -256,8 +410,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsMediumWhenLongAndSpecialCharactersAndCapitalLettersPresent() {
                 final String PASSWORD = "!J^N%IU~OGBLVK_^M";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -271,8 +423,6 @@ class PasswordServiceTest {
             void verifyThatPasswordIsWeakWhenShort() {
                 final String PASSWORD = "oUQl";
 
-                when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
                 PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
                 assertEquals(PASSWORD, passwordDto.getPassword());
@@ -285,9 +435,7 @@ class PasswordServiceTest {
             final String PASSWORD = "aXZ@fj*m=";
             final String PASSWORD_COMPLEXITY = PasswordComplexity.STRONG.toString();
 
-            Password password = new Password(PASSWORD, PASSWORD_COMPLEXITY, LocalDateTime.now());
-
-            when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(password);
+            store(new Password(PASSWORD, PASSWORD_COMPLEXITY, LocalDateTime.now()));
 
             PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
@@ -300,14 +448,100 @@ class PasswordServiceTest {
             final String PASSWORD = "op@x";
             final String PASSWORD_COMPLEXITY = PasswordComplexity.WEAK.toString();
 
-            when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
             PasswordDto passwordDto = passwordService.verifyPassword(PASSWORD);
 
             assertEquals(PASSWORD, passwordDto.getPassword());
             assertEquals(PASSWORD_COMPLEXITY, passwordDto.getComplexity());
             assertNull(passwordDto.getCreated());
         }
+
+        @Test
+        void passwordsToVerifyWithInvalidEntryShouldBeRejected() {
+            Throwable tooShort = assertThrows(UnacceptableValuesOfParametersException.class, () -> passwordService.checkPasswordToVerify(1, "op"));
+            Throwable missing = assertThrows(UnacceptableValuesOfParametersException.class, () -> passwordService.checkPasswordToVerify(1, null));
+
+            assertEquals("Password length at position 1 must be between 3 and 32", tooShort.getMessage());
+            assertEquals("Password at position 1 must be a string", missing.getMessage());
+            assertDoesNotThrow(() -> passwordService.checkPasswordToVerify(1, "Q{cRb]l=xo+^v&TOvn"));
+        }
+
+        @Test
+        void passwordsToVerifyBeyondLimitShouldBeRejected() {
+            verificationProperties.setMaxPasswords(2);
+
+            Throwable tooMany = assertThrows(UnacceptableValuesOfParametersException.class, () -> passwordService.checkPasswordToVerify(2, "oUQl"));
+
+            assertEquals("Number of verified passwords can not be higher than 2", tooMany.getMessage());
+            assertDoesNotThrow(() -> passwordService.checkPasswordToVerify(1, "oUQl"));
+        }
+    }
+
+    @Nested
+    class VerificationCache {
+        @Test
+        void repeatedVerificationShouldBeServedFromCache() {
+            final String PASSWORD = "Q{cRb]l=xo+^v&TOvn";
+
+            PasswordDto firstPasswordDto = passwordService.verifyPassword(PASSWORD);
+            PasswordDto secondPasswordDto = passwordService.verifyPassword(PASSWORD);
+
+            verify(passwordStore, times(1)).findByDigestAndPassword(any(byte[].class), eq(PASSWORD));
+            assertNotSame(firstPasswordDto, secondPasswordDto);
+            assertEquals(firstPasswordDto.getComplexity(), secondPasswordDto.getComplexity());
+        }
+
+        @Test
+        void changesToReturnedVerificationShouldNotReachCache() {
+            final String PASSWORD = "Q{cRb]l=xo+^v&TOvn";
+
+            passwordService.verifyPassword(PASSWORD).setBreached(true);
+            passwordService.verifyPassword(PASSWORD).setBreached(true);
+
+            assertNull(passwordService.verifyPassword(PASSWORD).getBreached());
+        }
+
+        @Test
+        void invalidationDuringVerificationShouldOnlyDiscardThatPassword() {
+            PasswordVerificationCache passwordVerificationCache = new PasswordVerificationCache(new VerificationCacheProperties());
+            AtomicInteger verifications = new AtomicInteger();
+            Function<String, PasswordDto> verification = password -> {
+                verifications.incrementAndGet();
+                passwordVerificationCache.invalidate(List.of("RMBqIpf"));
+                return new PasswordDto(password, PasswordComplexity.MEDIUM.toString(), null);
+            };
+
+            passwordVerificationCache.get("RMBqIpf", verification);
+            passwordVerificationCache.get("RMBqIpf", verification);
+            passwordVerificationCache.get("oPqfGXX", verification);
+            passwordVerificationCache.get("oPqfGXX", verification);
+
+            assertEquals(3, verifications.get());
+        }
+
+        @Test
+        void lookupsFindingPendingVerificationShouldCountAsMisses() {
+            PasswordVerificationCache passwordVerificationCache = new PasswordVerificationCache(new VerificationCacheProperties());
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            passwordVerificationCache.bindTo(registry);
+            Function<String, PasswordDto> verification = password -> new PasswordDto(password, PasswordComplexity.MEDIUM.toString(), null);
+
+            passwordVerificationCache.get("RMBqIpf", password -> passwordVerificationCache.get(password, verification));
+            passwordVerificationCache.get("RMBqIpf", verification);
+
+            assertEquals(1, registry.get("cache.gets").tag("cache", "password.verification").tag("result", "hit").functionCounter().count());
+            assertEquals(2, registry.get("cache.gets").tag("cache", "password.verification").tag("result", "miss").functionCounter().count());
+        }
+
+        @Test
+        void removalShouldInvalidateCachedVerification() {
+            final String PASSWORD = "RMBqIpf";
+            store(new Password(PASSWORD, PasswordComplexity.MEDIUM.toString(), LocalDateTime.now()));
+            assertNotNull(passwordService.verifyPassword(PASSWORD).getCreated());
+
+            passwordService.removePassword(PASSWORD);
+
+            assertNull(passwordService.verifyPassword(PASSWORD).getCreated());
+        }
     }
 
     @Nested
@@ -317,13 +551,12 @@ class PasswordServiceTest {
             final String PASSWORD = "RMBqIpf";
             final String PASSWORD_COMPLEXITY = PasswordComplexity.MEDIUM.toString();
 
-            Password password = new Password(PASSWORD, PASSWORD_COMPLEXITY, LocalDateTime.now());
-
-            when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(password);
+            store(new Password(PASSWORD, PASSWORD_COMPLEXITY, LocalDateTime.now()));
 
             PasswordDto passwordDto = passwordService.removePassword(PASSWORD);
 
-            verify(passwordRepository).deleteByPassword(PASSWORD);
+            verify(passwordStore).deleteByDigestAndPassword(any(byte[].class), eq(PASSWORD));
+            verify(passwordStore, never()).findByDigestAndPassword(any(byte[].class), anyString());
             assertEquals(PASSWORD, passwordDto.getPassword());
             assertEquals(PASSWORD_COMPLEXITY, passwordDto.getComplexity());
         }
@@ -332,11 +565,73 @@ class PasswordServiceTest {
         void removePasswordThatDoesNotExistsInDatabase() {
             final String PASSWORD = "#%Ou&s*x>/:poZQW^+a";
 
-            when(passwordRepository.findFirstByPassword(PASSWORD)).thenReturn(null);
-
             Throwable exception = assertThrows(NotFoundException.class, () -> passwordService.removePassword(PASSWORD));
 
             assertEquals("Password not found", exception.getMessage());
         }
+
+        @Test
+        void listedPasswordsShouldBeRemovedInChunks() {
+            removalProperties.setChunkSize(2);
+            passwordService = createPasswordService();
+            List<String> passwords = List.of("RMBqIpf", "oPqfGXX", "RMBqIpf", "@fH%$olGVzq");
+            for(String password : Set.copyOf(passwords)){
+                store(new Password(password, PasswordComplexity.MEDIUM.toString(), LocalDateTime.now()));
+            }
+
+            RemovedPasswordsDto removedPasswordsDto = passwordService.removePasswords(passwords);
+
+            verify(passwordStore).deleteAllByDigestsAndPasswords(anyList(), eq(List.of("RMBqIpf", "oPqfGXX")));
+            verify(passwordStore).deleteAllByDigestsAndPasswords(anyList(), eq(List.of("@fH%$olGVzq")));
+            assertEquals(3, removedPasswordsDto.getRemoved());
+        }
+
+        @Test
+        void filteredPasswordsShouldBeRemovedInChunks() {
+            removalProperties.setChunkSize(100);
+            passwordService = createPasswordService();
+            LocalDateTime createdBefore = LocalDateTime.now();
+            for(int i = 0; i < 250; i++){
+                store(new Password("password" + i, i < 242 ? "WEAK" : "STRONG", createdBefore.minusDays(1)));
+            }
+            store(new Password("newPassword", "WEAK", createdBefore.plusDays(1)));
+
+            RemovedPasswordsDto removedPasswordsDto = passwordService.removePasswords(PasswordComplexity.WEAK, createdBefore);
+
+            verify(passwordStore).deleteAll("WEAK", createdBefore, 100);
+            assertEquals(242, removedPasswordsDto.getRemoved());
+            assertEquals(9, passwordStore.count());
+        }
+
+        @Test
+        void removalWithoutFilterShouldBeRejected() {
+            Throwable exception = assertThrows(UnacceptableValuesOfParametersException.class, () -> passwordService.removePasswords(null, null));
+
+            assertEquals("Complexity or creation date must be given", exception.getMessage());
+            verify(passwordStore, never()).deleteAll(any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    class Metrics {
+        @Test
+        void createPasswordShouldCountGeneratedPasswordsByComplexityAndTimeStages() {
+            passwordService.createPassword(20, true, true, true, 4);
+
+            assertEquals(4, meterRegistry.get("password.generated").tag("complexity", "VERY_STRONG").counter().count());
+            assertEquals(0, meterRegistry.get("password.generated").tag("complexity", "WEAK").counter().count());
+            assertEquals(1, meterRegistry.get("password.stage").tag("stage", "generation").timer().count());
+            assertEquals(1, meterRegistry.get("password.stage").tag("stage", "classification").timer().count());
+            assertEquals(1, meterRegistry.get("password.stage").tag("stage", "duplicate.check").timer().count());
+            assertEquals(1, meterRegistry.get("password.stage").tag("stage", "save").timer().count());
+        }
+
+        @Test
+        void verifyPasswordThatDoesNotExistShouldTimeClassification() {
+            passwordService.verifyPassword("Abcdef1!");
+
+            assertEquals(1, meterRegistry.get("password.stage").tag("stage", "duplicate.check").timer().count());
+            assertEquals(1, meterRegistry.get("password.stage").tag("stage", "classification").timer().count());
+        }
     }
-}
\ No newline at end of file
+}
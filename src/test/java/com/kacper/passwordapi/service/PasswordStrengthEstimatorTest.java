@@ -0,0 +1,92 @@
+package com.kacper.passwordapi.service;
+
+import com.kacper.passwordapi.config.StrengthProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordStrengthEstimatorTest {
+
+    private final PasswordStrengthEstimator passwordStrengthEstimator = new PasswordStrengthEstimator(new StrengthProperties());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"password", "Password1", "p@ssw0rd", "drowssap", "qwertyuiop", "1qaz2wsx", "abcdefgh", "13579", "aaaaaaaa", "abcabcabc", "dragonmonkey"})
+    void guessablePasswordsShouldNeedFewGuesses(String password) {
+        assertTrue(passwordStrengthEstimator.estimate(password).getGuessesLog10() < 6, password);
+    }
+
+    @Test
+    void passwordConsideredStrongByCharacterClassesShouldStillBeGuessable() {
+        assertTrue(passwordStrengthEstimator.estimate("Password1!").getGuessesLog10() < 6);
+    }
+
+    @Test
+    void randomPasswordShouldNeedBruteForce() {
+        PasswordStrength strength = passwordStrengthEstimator.estimate("xK9#mQ2$vL7!pR4&");
+
+        assertEquals(16, strength.getGuessesLog10(), 0.5);
+        assertEquals(strength.getGuessesLog10() * Math.log(10) / Math.log(2), strength.getEntropy(), 1e-9);
+    }
+
+    @Test
+    void substitutionsAndCapitalsShouldAddGuesses() {
+        double plain = passwordStrengthEstimator.estimate("password").getGuessesLog10();
+
+        assertTrue(passwordStrengthEstimator.estimate("Password").getGuessesLog10() > plain);
+        assertTrue(passwordStrengthEstimator.estimate("p@ssw0rd").getGuessesLog10() > plain);
+    }
+
+    @Test
+    void everyDictionaryShouldBeRankedOnItsOwn(@TempDir Path directory) throws IOException {
+        Path common = Files.writeString(directory.resolve("common.txt"), "zebra\nquartz\nlimit\n");
+        Path rare = Files.writeString(directory.resolve("rare.txt"), "limit\n");
+        StrengthProperties properties = new StrengthProperties();
+        properties.setDictionaries(List.of(common.toUri().toString(), rare.toUri().toString()));
+        PasswordStrengthEstimator estimator = new PasswordStrengthEstimator(properties);
+
+        assertEquals(Math.log10(2 + 1), estimator.estimate("quartz").getGuessesLog10(), 1e-9);
+        assertEquals(Math.log10(1 + 1), estimator.estimate("limit").getGuessesLog10(), 1e-9);
+    }
+
+    @Test
+    void dictionariesShouldNotDependOnDefaultLocale(@TempDir Path directory) throws IOException {
+        Path dictionary = Files.writeString(directory.resolve("words.txt"), "LIMIT\n");
+        StrengthProperties properties = new StrengthProperties();
+        properties.setDictionaries(List.of(dictionary.toUri().toString()));
+        Locale defaultLocale = Locale.getDefault();
+        PasswordStrengthEstimator estimator;
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            estimator = new PasswordStrengthEstimator(properties);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        assertEquals(Math.log10(1 + 1), estimator.estimate("limit").getGuessesLog10(), 1e-9);
+    }
+
+    @Test
+    void estimateShouldHandleAnyInput() {
+        Random random = new Random(42);
+        for(int i = 0; i < 10_000; i++){
+            char[] password = new char[random.nextInt(120)];
+            for(int j = 0; j < password.length; j++){
+                password[j] = (char) random.nextInt(random.nextBoolean() ? 128 : Character.MAX_VALUE);
+            }
+            PasswordStrength strength = passwordStrengthEstimator.estimate(new String(password));
+
+            assertTrue(Double.isFinite(strength.getGuessesLog10()));
+            assertTrue(strength.getGuessesLog10() >= 0);
+        }
+    }
+}